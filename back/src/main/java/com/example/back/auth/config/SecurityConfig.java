@@ -39,7 +39,9 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/api/payments/checkout"
+                                "/api/payments/checkout",
+                                "/api/payments/checkout/**",
+                                "/api/payments/webhook"
                         ).permitAll()
                         .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
                         .requestMatchers(new AntPathRequestMatcher("/account")).permitAll()
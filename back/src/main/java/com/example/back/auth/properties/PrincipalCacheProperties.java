@@ -0,0 +1,15 @@
+package com.example.back.auth.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "principal-cache")
+@Configuration
+@Data
+public class PrincipalCacheProperties {
+    private long maximumSize;
+    private Duration expireAfterWrite;
+}
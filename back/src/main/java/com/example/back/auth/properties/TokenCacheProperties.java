@@ -0,0 +1,13 @@
+package com.example.back.auth.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "token-cache")
+@Configuration
+@Data
+public class TokenCacheProperties {
+    private boolean enabled;
+    private long maximumSize;
+}
@@ -10,13 +10,14 @@ import org.springframework.stereotype.Service;
 
 /**
  * Custom implementation of Spring Security's UserDetailsService.
- * This service loads user details from the database.
+ * This service loads user details from the database through the principal cache.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     /**
      * Load user details by username (email in our case).
@@ -27,9 +28,20 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, this::loadFromDatabase);
+    }
+
+    /**
+     * Load user details from the database, bypassing the principal cache.
+     *
+     * @param email the email of the user
+     * @return the user details
+     * @throws UsernameNotFoundException if the user is not found
+     */
+    private CustomUserDetails loadFromDatabase(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        
+
         return new CustomUserDetails(user);
     }
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final int BEARER_PREFIX_LENGTH = 7; // "Bearer ".length()
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
     private final CustomUserDetailsService userDetailsService;
 
     @Override
@@ -39,14 +40,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader(AUTHORIZATION_HEADER);
 
-        String email = null;
-        String jwt = null;
+        ParsedToken parsedToken = null;
 
-        // Extract JWT token from Authorization header
+        // Extract and parse JWT token from Authorization header, once for the whole request
         if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
-            jwt = authorizationHeader.substring(BEARER_PREFIX_LENGTH);
+            String jwt = authorizationHeader.substring(BEARER_PREFIX_LENGTH);
             try {
-                email = jwtUtil.extractUsername(jwt);
+                parsedToken = tokenCache.parseToken(jwt);
             } catch (Exception e) {
                 // Invalid token, continue to the next filter
                 log.debug("Invalid JWT token: {}", e.getMessage());
@@ -54,19 +54,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         // Validate token and set authentication
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (parsedToken != null && parsedToken.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String email = parsedToken.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
-            // Ensure jwt is not null before validation
-            if (jwt != null) {
-                Boolean valid = jwtUtil.validateToken(jwt, userDetails);
-                if (Boolean.TRUE.equals(valid)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.debug("Authentication set for user: {}", email);
-                }
+            if (jwtUtil.validateToken(parsedToken, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                log.debug("Authentication set for user: {}", email);
             }
         }
 
@@ -1,6 +1,7 @@
 package com.example.back.auth.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -26,6 +27,23 @@ public class JwtUtil {
     // Secret key for signing the JWT
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
 
+    // Parser built once and shared, JwtParser instances are immutable and thread-safe
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+
+    /**
+     * Verify the signature of a JWT token and decode it.
+     * This is the single parse-and-verify pass a request needs, every later check uses the returned object.
+     *
+     * @param token the JWT token
+     * @return the parsed token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, expired or its signature does not match
+     */
+    public ParsedToken parseToken(String token) {
+        return ParsedToken.from(extractAllClaims(token));
+    }
+
     /**
      * Extract username from JWT token.
      *
@@ -66,11 +84,7 @@ public class JwtUtil {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -122,4 +136,15 @@ public class JwtUtil {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
+
+    /**
+     * Validate an already parsed JWT token.
+     *
+     * @param parsedToken the parsed token
+     * @param userDetails the user details
+     * @return true if the token is valid, false otherwise
+     */
+    public boolean validateToken(ParsedToken parsedToken, UserDetails userDetails) {
+        return userDetails.getUsername().equals(parsedToken.getSubject()) && !parsedToken.isExpired();
+    }
 }
\ No newline at end of file
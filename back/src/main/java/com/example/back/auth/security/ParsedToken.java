@@ -0,0 +1,44 @@
+package com.example.back.auth.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable result of verifying and decoding a JWT token.
+ * A token is parsed once per request and this object is used for every later check.
+ */
+@Value
+public class ParsedToken {
+
+    String subject;
+    Instant expiration;
+    Map<String, Object> claims;
+
+    /**
+     * Create a parsed token from verified claims.
+     *
+     * @param claims the verified claims
+     * @return the parsed token
+     */
+    public static ParsedToken from(Claims claims) {
+        return new ParsedToken(
+                claims.getSubject(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(claims))
+        );
+    }
+
+    /**
+     * Check if the token is expired.
+     *
+     * @return true if the token is expired, false otherwise
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.back.auth.security;
+
+import com.example.back.auth.properties.PrincipalCacheProperties;
+import com.example.back.common.util.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * In-process cache of authenticated principals by email.
+ * Bounded in size with a time to live, so that authenticating a request with a known user
+ * does not query the database. Metrics are exposed under the "principals" cache name.
+ * Concurrent misses on the same email share a single load, run on the calling thread by
+ * {@link AsyncCacheLoader}. Evicting a user drops a pending load, so it cannot cache a stale principal.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final AsyncCache<String, CustomUserDetails> cache;
+
+    public UserPrincipalCache(PrincipalCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get a principal from the cache, loading it on a miss.
+     *
+     * @param email the email of the user
+     * @param loader the function loading the principal from the database
+     * @return the cached principal
+     */
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        return AsyncCacheLoader.get(cache, email, loader);
+    }
+
+    /**
+     * Evict a principal from the cache.
+     * Must be called whenever the underlying user is created, modified or deleted.
+     *
+     * @param email the email of the user
+     */
+    public void evict(String email) {
+        log.debug("Evicting principal with email: {} from cache", email);
+        cache.synchronous().invalidate(email);
+    }
+}
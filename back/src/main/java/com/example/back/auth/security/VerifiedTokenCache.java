@@ -0,0 +1,107 @@
+package com.example.back.auth.security;
+
+import com.example.back.auth.properties.TokenCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Optional cache of already verified JWT tokens, keyed by the SHA-256 digest of the compact token.
+ * A repeated request with the same bearer token skips the signature verification and the claims parsing.
+ * Each entry expires at the expiration of its own token, so an expired token is never served from the cache.
+ * Hit, miss and size metrics are exposed under the "verified-tokens" cache name.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "verified-tokens";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, ParsedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, TokenCacheProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+
+        if (properties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfter(new TokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+            log.info("Verified token cache is disabled");
+        }
+    }
+
+    /**
+     * Verify and decode a JWT token, reusing a previous verification of the same token when available.
+     *
+     * @param token the JWT token
+     * @return the parsed token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, expired or its signature does not match
+     */
+    public ParsedToken parseToken(String token) {
+        if (cache == null) {
+            return jwtUtil.parseToken(token);
+        }
+
+        return cache.get(digest(token), key -> jwtUtil.parseToken(token));
+    }
+
+    /**
+     * Compute the digest used as cache key, so that bearer tokens themselves are not kept in memory.
+     *
+     * @param token the JWT token
+     * @return the Base64 encoded SHA-256 digest of the token
+     */
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Expiry policy making each entry live until the expiration of its token.
+     */
+    private static class TokenExpiry implements Expiry<String, ParsedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ParsedToken value, long currentTime) {
+            if (value.getExpiration() == null) {
+                return 0L;
+            }
+
+            long remaining = Duration.between(Instant.now(), value.getExpiration()).toNanos();
+            return Math.max(remaining, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ParsedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, ParsedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -7,12 +7,14 @@ import com.example.back.auth.model.User;
 import com.example.back.auth.repository.UserRepository;
 import com.example.back.auth.security.CustomUserDetails;
 import com.example.back.auth.security.JwtUtil;
+import com.example.back.auth.security.UserPrincipalCache;
 import com.example.back.common.exception.DuplicateResourceException;
 import com.example.back.common.exception.ValidationException;
 import com.example.back.auth.properties.AuthMessageProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserPrincipalCache principalCache;
 
     /**
      * Generate token for a user.
@@ -92,6 +95,7 @@ public class UserService {
 
         // Save user
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
     }
 
     /**
@@ -104,6 +108,22 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Find the user of an authentication.
+     * The user already resolved by the authentication filter is reused when available,
+     * so that services do not query the database a second time for the same request.
+     *
+     * @param authentication the authentication
+     * @return an Optional containing the user if found, or empty if not found
+     */
+    public Optional<User> findUserByAuthentication(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return Optional.of(userDetails.getUser());
+        }
+
+        return findUserByEmail(authentication.getName());
+    }
+
     /**
      * Validate an account creation request.
      *
@@ -1,8 +1,11 @@
 package com.example.back.cart.controller;
 
 import com.example.back.cart.dto.request.AddToCartRequestDTO;
+import com.example.back.cart.dto.request.CartCheckoutRequestDTO;
 import com.example.back.cart.dto.request.UpdateCartItemRequestDTO;
+import com.example.back.cart.dto.response.CartCheckoutResponseDTO;
 import com.example.back.cart.dto.response.CartResponseDTO;
+import com.example.back.common.exception.DuplicateResourceException;
 import com.example.back.common.exception.ResourceNotFoundException;
 import com.example.back.common.exception.ValidationException;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +19,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Interface defining shopping cart management endpoints with Swagger documentation.
@@ -28,11 +32,12 @@ public interface CartApi {
     /**
      * Endpoint to retrieve the current user's shopping cart.
      *
-     * @return the current user's shopping cart
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the current user's shopping cart, or no body if it did not change
      */
     @Operation(
             summary = "Get current user's shopping cart",
-            description = "Retrieves the current authenticated user's shopping cart. Creates a new cart if it doesn't exist."
+            description = "Retrieves the current authenticated user's shopping cart. Creates a new cart if it doesn't exist. Supports conditional requests with If-None-Match and If-Modified-Since."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -41,6 +46,10 @@ public interface CartApi {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = CartResponseDTO.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Cart not modified"
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Not authenticated",
@@ -48,7 +57,7 @@ public interface CartApi {
             )
     })
     @GetMapping
-    ResponseEntity<CartResponseDTO> getCart();
+    ResponseEntity<CartResponseDTO> getCart(WebRequest webRequest);
 
     /**
      * Endpoint to add a product to the cart.
@@ -191,4 +200,51 @@ public interface CartApi {
     })
     @DeleteMapping
     ResponseEntity<CartResponseDTO> clearCart();
-}
\ No newline at end of file
+
+    /**
+     * Endpoint to check out the cart.
+     * The amount and the order details are computed from the persisted cart, the stock of every line
+     * is reserved and the payment is created with the payment provider.
+     *
+     * @param checkoutDTO the currency and redirect URLs, optional
+     * @return the created payment with its checkout URL
+     * @throws ValidationException if the cart is empty or a product does not have enough stock
+     * @throws DuplicateResourceException if a checkout of the cart is already in progress
+     */
+    @Operation(
+            summary = "Check out cart",
+            description = "Reserves the stock of every cart line and creates the payment from the persisted cart. The amount is computed on the server."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Payment successfully created",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CartCheckoutResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty cart or not enough stock",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A checkout of the cart is already in progress",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Payment provider unavailable, the stock is released",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/checkout")
+    ResponseEntity<CartCheckoutResponseDTO> checkout(
+            @Parameter(description = "Checkout options")
+            @Valid @RequestBody(required = false) CartCheckoutRequestDTO checkoutDTO);
+}
@@ -1,14 +1,21 @@
 package com.example.back.cart.controller;
 
 import com.example.back.cart.dto.request.AddToCartRequestDTO;
+import com.example.back.cart.dto.request.CartCheckoutRequestDTO;
+import com.example.back.cart.dto.response.CartCheckoutResponseDTO;
 import com.example.back.cart.dto.response.CartResponseDTO;
 import com.example.back.cart.dto.request.UpdateCartItemRequestDTO;
+import com.example.back.cart.service.CartCheckoutService;
 import com.example.back.cart.service.CartService;
+import com.example.back.common.dto.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 /**
  * Controller for shopping cart endpoints.
@@ -20,13 +27,20 @@ import org.springframework.web.bind.annotation.*;
 public class CartController implements CartApi {
 
     private final CartService cartService;
+    private final CartCheckoutService cartCheckoutService;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<CartResponseDTO> getCart() {
+    public ResponseEntity<CartResponseDTO> getCart(WebRequest webRequest) {
         log.debug("REST request to get current user's cart");
+        Optional<ResourceVersion> version = cartService.getCurrentUserCartVersion();
+        if (version.isPresent()
+                && webRequest.checkNotModified(version.get().getEtag(), version.get().getLastModified())) {
+            return null;
+        }
+
         return ResponseEntity.ok(cartService.getCurrentUserCart());
     }
 
@@ -67,4 +81,13 @@ public class CartController implements CartApi {
         log.debug("REST request to clear cart");
         return ResponseEntity.ok(cartService.clearCart());
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<CartCheckoutResponseDTO> checkout(@Valid CartCheckoutRequestDTO checkoutDTO) {
+        log.debug("REST request to check out current user's cart");
+        return ResponseEntity.ok(cartCheckoutService.checkout(checkoutDTO));
+    }
+}
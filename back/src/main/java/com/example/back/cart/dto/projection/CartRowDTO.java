@@ -0,0 +1,26 @@
+package com.example.back.cart.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat read-only projection of a shopping cart line.
+ * One row is selected per cart item, each row repeating the cart columns.
+ * An empty cart yields a single row whose item columns are all null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartRowDTO {
+    private Long cartId;
+    private Long userId;
+    private Long cartCreatedAt;
+    private Long cartUpdatedAt;
+    private Long productId;
+    private String productCode;
+    private String productName;
+    private String productImage;
+    private Double productPrice;
+    private Integer quantity;
+}
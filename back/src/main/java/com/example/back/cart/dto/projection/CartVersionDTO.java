@@ -0,0 +1,19 @@
+package com.example.back.cart.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregate of a shopping cart that changes whenever the cart or one of its products changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartVersionDTO {
+    private Long cartId;
+    private Long cartUpdatedAt;
+    private Long itemCount;
+    private Long quantitySum;
+    private Long productsUpdatedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.back.cart.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for checking out the shopping cart.
+ * The amount and the order details are computed from the persisted cart and cannot be sent by the client.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartCheckoutRequestDTO {
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code")
+    private String currency;
+
+    @JsonProperty("success_redirect_url")
+    private String successRedirectUrl;
+
+    @JsonProperty("error_redirect_url")
+    private String errorRedirectUrl;
+}
@@ -0,0 +1,26 @@
+package com.example.back.cart.dto.response;
+
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for cart checkout responses.
+ * This class is used to send the created order, its payment and the held stock to clients.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartCheckoutResponseDTO {
+    @JsonProperty("order_number")
+    private String orderNumber;
+    private Double amount;
+    private String currency;
+    @JsonProperty("checkout_url")
+    private String checkoutUrl;
+    @JsonProperty("reservations_expire_at")
+    private Long reservationsExpireAt;
+    private BictorysPaymentResponseDTO payment;
+}
@@ -1,11 +1,14 @@
 package com.example.back.cart.mapper;
 
+import com.example.back.cart.dto.projection.CartRowDTO;
 import com.example.back.cart.dto.request.CartItemRequestDTO;
 import com.example.back.cart.dto.response.CartResponseDTO;
 import com.example.back.cart.model.CartItem;
 import com.example.back.cart.model.ShoppingCart;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -43,12 +46,12 @@ public class CartMapper {
     }
 
     /**
-     * Converts a list of CartItem entities to a list of CartItemDTOs.
+     * Converts a collection of CartItem entities to a list of CartItemDTOs.
      *
-     * @param cartItems the list of CartItem entities
+     * @param cartItems the collection of CartItem entities
      * @return the list of CartItemDTOs
      */
-    public List<CartItemRequestDTO> toCartItemDTOList(List<CartItem> cartItems) {
+    public List<CartItemRequestDTO> toCartItemDTOList(Collection<CartItem> cartItems) {
         if (cartItems == null) {
             return Collections.emptyList();
         }
@@ -76,7 +79,7 @@ public class CartMapper {
         dto.setUpdatedAt(cart.getUpdatedAt());
         
         // Convert cart items
-        List<CartItemRequestDTO> itemDTOs = toCartItemDTOList(cart.getItems());
+        List<CartItemRequestDTO> itemDTOs = toCartItemDTOList(cart.getItems().values());
         dto.setItems(itemDTOs);
         
         // Calculate total items and total price
@@ -98,4 +101,61 @@ public class CartMapper {
         
         return dto;
     }
+
+    /**
+     * Converts the flat rows of a shopping cart to a CartResponseDTO in a single pass,
+     * computing subtotals and totals along the way.
+     *
+     * @param rows the cart rows, all belonging to the same cart
+     * @return the CartResponseDTO, or null if there is no row
+     */
+    public CartResponseDTO toCartResponseDTO(List<CartRowDTO> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+
+        CartRowDTO header = rows.get(0);
+        CartResponseDTO dto = new CartResponseDTO();
+        dto.setId(header.getCartId());
+        dto.setUserId(header.getUserId());
+        dto.setCreatedAt(header.getCartCreatedAt());
+        dto.setUpdatedAt(header.getCartUpdatedAt());
+
+        List<CartItemRequestDTO> itemDTOs = new ArrayList<>(rows.size());
+        int totalItems = 0;
+        double totalPrice = 0.0;
+
+        for (CartRowDTO row : rows) {
+            // An empty cart is returned as a single row without product
+            if (row.getProductId() == null) {
+                continue;
+            }
+
+            CartItemRequestDTO item = new CartItemRequestDTO();
+            item.setProductId(row.getProductId());
+            item.setProductCode(row.getProductCode());
+            item.setProductName(row.getProductName());
+            item.setProductImage(row.getProductImage());
+            item.setProductPrice(row.getProductPrice());
+            item.setQuantity(row.getQuantity());
+
+            if (row.getQuantity() != null) {
+                totalItems += row.getQuantity();
+
+                if (row.getProductPrice() != null) {
+                    double subtotal = row.getProductPrice() * row.getQuantity();
+                    item.setSubtotal(subtotal);
+                    totalPrice += subtotal;
+                }
+            }
+
+            itemDTOs.add(item);
+        }
+
+        dto.setItems(itemDTOs);
+        dto.setTotalItems(totalItems);
+        dto.setTotalPrice(totalPrice);
+
+        return dto;
+    }
 }
\ No newline at end of file
@@ -5,16 +5,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
 
 /**
  * Entity class for CartItem.
  * This class represents an item in a shopping cart.
+ * A cart holds at most one item per product.
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cart_items_cart_product", columnNames = {"cart_id", "product_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +30,8 @@ public class CartItem {
     private Long id;
 
     @NotNull(message = "Cart is required")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "cart_id", nullable = false)
     private ShoppingCart cart;
@@ -34,6 +41,12 @@ public class CartItem {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    /**
+     * Read-only view of the product foreign key, used to key the cart items by product.
+     */
+    @Column(name = "product_id", insertable = false, updatable = false)
+    private Long productId;
+
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     @Column(nullable = false)
@@ -5,11 +5,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Entity class for ShoppingCart.
@@ -32,8 +34,11 @@ public class ShoppingCart {
     private User user;
 
     @NotNull(message = "Items list cannot be null")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<CartItem> items = new ArrayList<>();
+    @MapKey(name = "productId")
+    private Map<Long, CartItem> items = new HashMap<>();
 
     @JoinColumn(name = "created_at")
     private Long createdAt;
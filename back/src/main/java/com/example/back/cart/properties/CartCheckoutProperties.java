@@ -0,0 +1,14 @@
+package com.example.back.cart.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "cart-checkout")
+@Configuration
+@Data
+public class CartCheckoutProperties {
+    private String defaultCurrency;
+    private String cartEmptyError;
+    private String checkoutInProgressError;
+}
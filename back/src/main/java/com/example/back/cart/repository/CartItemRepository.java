@@ -1,33 +1,94 @@
 package com.example.back.cart.repository;
 
 import com.example.back.cart.model.CartItem;
-import com.example.back.cart.model.ShoppingCart;
-import com.example.back.product.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 /**
  * Repository interface for CartItem entity.
  * This interface provides database operations for CartItem entity.
+ * Cart lines are addressed by (cart ID, product ID), each operation being a single statement.
  */
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    
+
+    /**
+     * Check if a cart already contains a product.
+     *
+     * @param cartId the shopping cart ID
+     * @param productId the product ID
+     * @return true if the cart contains the product, false otherwise
+     */
+    @Query("""
+            SELECT COUNT(i) > 0 FROM CartItem i
+            WHERE i.cart.id = :cartId AND i.product.id = :productId
+            """)
+    boolean existsByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
+    /**
+     * Increment the quantity of a cart item, as long as the new quantity does not exceed the given maximum.
+     *
+     * @param cartId the shopping cart ID
+     * @param productId the product ID
+     * @param delta the quantity to add
+     * @param maxQuantity the maximum allowed quantity
+     * @param updatedAt the update timestamp
+     * @return the number of updated rows, 0 if the item does not exist or the maximum would be exceeded
+     */
+    @Modifying
+    @Query("""
+            UPDATE CartItem i
+            SET i.quantity = i.quantity + :delta, i.updatedAt = :updatedAt
+            WHERE i.cart.id = :cartId AND i.product.id = :productId
+            AND i.quantity + :delta <= :maxQuantity
+            """)
+    int incrementQuantity(@Param("cartId") Long cartId,
+                          @Param("productId") Long productId,
+                          @Param("delta") int delta,
+                          @Param("maxQuantity") int maxQuantity,
+                          @Param("updatedAt") Long updatedAt);
+
+    /**
+     * Set the quantity of a cart item.
+     *
+     * @param cartId the shopping cart ID
+     * @param productId the product ID
+     * @param quantity the new quantity
+     * @param updatedAt the update timestamp
+     * @return the number of updated rows, 0 if the item does not exist
+     */
+    @Modifying
+    @Query("""
+            UPDATE CartItem i
+            SET i.quantity = :quantity, i.updatedAt = :updatedAt
+            WHERE i.cart.id = :cartId AND i.product.id = :productId
+            """)
+    int updateQuantity(@Param("cartId") Long cartId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") int quantity,
+                       @Param("updatedAt") Long updatedAt);
+
     /**
-     * Find a cart item by cart and product.
-     * 
-     * @param cart the shopping cart
-     * @param product the product
-     * @return an Optional containing the cart item if found, or empty if not found
+     * Delete the cart item of a product.
+     *
+     * @param cartId the shopping cart ID
+     * @param productId the product ID
+     * @return the number of deleted rows, 0 if the item does not exist
      */
-    Optional<CartItem> findByCartAndProduct(ShoppingCart cart, Product product);
-    
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId AND i.product.id = :productId")
+    int deleteByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
     /**
      * Delete all cart items for the given cart.
-     * 
-     * @param cart the shopping cart
+     *
+     * @param cartId the shopping cart ID
+     * @return the number of deleted rows
      */
-    void deleteByCart(ShoppingCart cart);
-}
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
+}
@@ -1,10 +1,18 @@
 package com.example.back.cart.repository;
 
 import com.example.back.auth.model.User;
+import com.example.back.cart.dto.projection.CartRowDTO;
+import com.example.back.cart.dto.projection.CartVersionDTO;
 import com.example.back.cart.model.ShoppingCart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,4 +29,88 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long
      * @return an Optional containing the shopping cart if found, or empty if not found
      */
     Optional<ShoppingCart> findByUser(User user);
+
+    /**
+     * Find a shopping cart by user, fetching its user, items and their products in a single query.
+     * This avoids one select per cart item when the cart is rendered.
+     *
+     * @param user the user
+     * @return an Optional containing the shopping cart if found, or empty if not found
+     */
+    @Query("""
+            SELECT DISTINCT c FROM ShoppingCart c
+            JOIN FETCH c.user
+            LEFT JOIN FETCH c.items i
+            LEFT JOIN FETCH i.product
+            WHERE c.user = :user
+            """)
+    Optional<ShoppingCart> findWithItemsByUser(@Param("user") User user);
+
+    /**
+     * Find the lines of a user's shopping cart as flat rows, without materializing any entity.
+     * Used by the read-only cart rendering path.
+     *
+     * @param userId the user ID
+     * @return one row per cart item, a single row with null item columns for an empty cart,
+     * or no row if the user has no cart
+     */
+    @Query("""
+            SELECT new com.example.back.cart.dto.projection.CartRowDTO(
+                c.id, c.user.id, c.createdAt, c.updatedAt,
+                p.id, p.code, p.name, p.image, p.price, i.quantity)
+            FROM ShoppingCart c
+            LEFT JOIN c.items i
+            LEFT JOIN i.product p
+            WHERE c.user.id = :userId
+            ORDER BY i.id
+            """)
+    List<CartRowDTO> findCartRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find the ID of a user's shopping cart.
+     *
+     * @param userId the user ID
+     * @return an Optional containing the cart ID if found, or empty if not found
+     */
+    @Query("SELECT c.id FROM ShoppingCart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find a user's shopping cart and lock its row until the end of the transaction.
+     * Used to run one checkout of a cart at a time.
+     *
+     * @param userId the user ID
+     * @return an Optional containing the locked shopping cart, or empty if the user has no cart
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ShoppingCart c WHERE c.user.id = :userId")
+    Optional<ShoppingCart> lockByUserId(@Param("userId") Long userId);
+
+    /**
+     * Compute the version of a user's shopping cart from the cart itself, its items and their products.
+     *
+     * @param userId the user ID
+     * @return an Optional containing the cart version, or empty if the user has no cart
+     */
+    @Query("""
+            SELECT new com.example.back.cart.dto.projection.CartVersionDTO(
+                c.id, c.updatedAt, COUNT(i), SUM(i.quantity), MAX(p.updatedAt))
+            FROM ShoppingCart c
+            LEFT JOIN c.items i
+            LEFT JOIN i.product p
+            WHERE c.user.id = :userId
+            GROUP BY c.id, c.updatedAt
+            """)
+    Optional<CartVersionDTO> findCartVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Mark a shopping cart as modified.
+     *
+     * @param id the cart ID
+     * @param updatedAt the update timestamp
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE ShoppingCart c SET c.updatedAt = :updatedAt WHERE c.id = :id")
+    int touch(@Param("id") Long id, @Param("updatedAt") Long updatedAt);
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.example.back.cart.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.cart.dto.projection.CartRowDTO;
+import com.example.back.cart.dto.request.CartCheckoutRequestDTO;
+import com.example.back.cart.dto.response.CartCheckoutResponseDTO;
+import com.example.back.cart.properties.CartCheckoutProperties;
+import com.example.back.cart.repository.ShoppingCartRepository;
+import com.example.back.common.exception.DuplicateResourceException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.properties.StockReservationProperties;
+import com.example.back.inventory.service.StockReservationService;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderLine;
+import com.example.back.order.model.OrderStatus;
+import com.example.back.order.service.OrderService;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.event.PaymentOutcomeEvent;
+import com.example.back.payments.bictorys.service.BictorysPaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for checking out the shopping cart.
+ * The order details and the amount are built on the server from the persisted cart, read in a single query.
+ * The order and the stock reservations of its lines are written in one transaction, so either all lines are
+ * held or none is. The payment provider is called once that transaction has committed, so no database connection
+ * is held during the call. The reservations are released and the order is marked as failed only when the provider
+ * is known not to have created a charge: circuit open, too many concurrent calls, or connection failure. After any
+ * other failure a charge may exist, so the reservations stay held until they are paid or expire.
+ * Once the charge is recorded, the reservations are held for the longer charged hold, and the outcome reported by the
+ * provider either confirms them, marks the order as paid and removes its products from the cart, or releases them
+ * and marks the order as failed.
+ * One checkout of a cart runs at a time: the cart row is locked while the order is prepared, and a new checkout is
+ * refused while an order of the user is still awaiting its charge and its reservations are held.
+ */
+@Service
+@Slf4j
+public class CartCheckoutService {
+
+    private final CartService cartService;
+    private final ShoppingCartRepository cartRepository;
+    private final StockReservationService stockReservationService;
+    private final BictorysPaymentService paymentService;
+    private final OrderService orderService;
+    private final CartCheckoutProperties properties;
+    private final StockReservationProperties reservationProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartCheckoutService(CartService cartService, ShoppingCartRepository cartRepository,
+                               StockReservationService stockReservationService, BictorysPaymentService paymentService,
+                               OrderService orderService, CartCheckoutProperties properties,
+                               StockReservationProperties reservationProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.cartService = cartService;
+        this.cartRepository = cartRepository;
+        this.stockReservationService = stockReservationService;
+        this.paymentService = paymentService;
+        this.orderService = orderService;
+        this.properties = properties;
+        this.reservationProperties = reservationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Check out the current user's shopping cart.
+     *
+     * @param checkoutDTO the currency and redirect URLs, may be null
+     * @return the created order and payment with the checkout URL
+     * @throws ValidationException if the cart is empty or a product does not have enough stock
+     * @throws DuplicateResourceException if a checkout of the cart is already in progress
+     * @throws PaymentUnavailableException if the provider did not create the payment, the stock is released
+     * @throws com.example.back.common.exception.PaymentException if the outcome of the payment is unknown,
+     * the stock stays held until it expires
+     */
+    public CartCheckoutResponseDTO checkout(CartCheckoutRequestDTO checkoutDTO) {
+        User user = cartService.getCurrentUser();
+        String currency = checkoutDTO == null || checkoutDTO.getCurrency() == null
+                ? properties.getDefaultCurrency()
+                : checkoutDTO.getCurrency();
+        String orderNumber = orderService.nextOrderNumber();
+
+        PreparedCheckout prepared = transactionTemplate.execute(status -> prepare(user, orderNumber, currency));
+        Order order = prepared.order;
+
+        BictorysPaymentRequestDTO paymentRequest = BictorysPaymentRequestDTO.builder()
+                .amount(order.getTotalAmount())
+                .currency(currency)
+                .paymentReference(orderNumber)
+                .merchantReference(orderNumber)
+                .successRedirectUrl(checkoutDTO == null ? null : checkoutDTO.getSuccessRedirectUrl())
+                .errorRedirectUrl(checkoutDTO == null ? null : checkoutDTO.getErrorRedirectUrl())
+                .orderDetails(order.getLines().stream()
+                        .map(line -> BictorysPaymentRequestDTO.OrderDetailDTO.builder()
+                                .name(line.getProductName())
+                                .price(line.getUnitPrice())
+                                .quantity(line.getQuantity().doubleValue())
+                                .build())
+                        .toList())
+                .customerObject(BictorysPaymentRequestDTO.CustomerDTO.builder()
+                        .name(user.getFirstname())
+                        .email(user.getEmail())
+                        .build())
+                .build();
+
+        BictorysPaymentResponseDTO payment;
+        try {
+            payment = paymentService.createCheckoutPayment(paymentRequest);
+        } catch (PaymentUnavailableException e) {
+            log.warn("Payment of order {} was not created, releasing its stock reservations", orderNumber);
+            try {
+                orderService.changeStatus(order.getId(), OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED,
+                        e.getMessage());
+            } catch (RuntimeException statusFailure) {
+                log.error("Failed to mark order {} as failed", orderNumber, statusFailure);
+            }
+            releaseReservations(orderNumber, prepared.reservations);
+            throw e;
+        } catch (RuntimeException e) {
+            // The provider may have created the charge: keep the stock held until it is paid or expires
+            log.warn("Outcome of the payment of order {} is unknown, keeping its stock reservations until they expire",
+                    orderNumber);
+            throw e;
+        }
+        orderService.recordCharge(order.getId(), payment.getChargeId(), payment.getCheckoutUrl());
+        // The payment may complete after the checkout hold: keep the stock until the provider reports the outcome
+        long reservationsExpireAt = stockReservationService.extendHold(orderNumber,
+                reservationProperties.getChargedHoldDuration());
+
+        log.debug("Checkout of order {} created for user {} with amount {} {}",
+                orderNumber, user.getId(), order.getTotalAmount(), currency);
+        return new CartCheckoutResponseDTO(orderNumber, order.getTotalAmount(), currency, payment.getCheckoutUrl(),
+                reservationsExpireAt, payment);
+    }
+
+    /**
+     * Apply the payment outcome reported by the provider to the order it was created for.
+     * A paid order has its reservations confirmed and its products removed from the cart, in one transaction.
+     * A failed order has its reservations released. Outcomes of other payments and repeated outcomes are ignored.
+     *
+     * @param event the payment outcome
+     */
+    @EventListener
+    public void onPaymentOutcome(PaymentOutcomeEvent event) {
+        Order order = event.getMerchantReference() == null
+                ? null
+                : orderService.findByOrderNumber(event.getMerchantReference()).orElse(null);
+        if (order == null) {
+            log.debug("Charge {} was not created by a cart checkout", event.getChargeId());
+            return;
+        }
+        String orderNumber = order.getOrderNumber();
+        if (order.getChargeId() != null && !order.getChargeId().equals(event.getChargeId())) {
+            log.warn("Outcome of charge {} ignored, order {} has charge {}", event.getChargeId(), orderNumber,
+                    order.getChargeId());
+            return;
+        }
+        if (order.getStatus() != OrderStatus.PENDING_PAYMENT) {
+            if (event.isPaid() && order.getStatus() != OrderStatus.PAID) {
+                log.error("Order {} was paid by charge {} while {}, it must be refunded", orderNumber,
+                        event.getChargeId(), order.getStatus());
+            } else {
+                log.debug("Outcome of order {} already recorded", orderNumber);
+            }
+            return;
+        }
+
+        if (event.isPaid()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderService.changeStatus(order.getId(), OrderStatus.PENDING_PAYMENT, OrderStatus.PAID, null);
+                int confirmed = stockReservationService.confirmAll(orderNumber);
+                if (confirmed < order.getLines().size()) {
+                    log.error("Order {} was paid but only {} of its {} reservations were still held", orderNumber,
+                            confirmed, order.getLines().size());
+                }
+                cartService.removePaidItems(order.getUserId(),
+                        order.getLines().stream().map(OrderLine::getProductId).toList());
+            });
+            log.info("Order {} paid by charge {}", orderNumber, event.getChargeId());
+        } else {
+            orderService.changeStatus(order.getId(), OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED,
+                    event.getStatus());
+            releaseReservations(orderNumber, stockReservationService.findByReference(orderNumber));
+            log.info("Payment of order {} {}, its stock reservations are released", orderNumber, event.getStatus());
+        }
+    }
+
+    /**
+     * Read the cart lines, reserve their stock and create the order snapshotting them.
+     */
+    private PreparedCheckout prepare(User user, String orderNumber, String currency) {
+        // Serialize the checkouts of the cart, then refuse a new one while the previous one awaits its charge
+        cartRepository.lockByUserId(user.getId());
+        long since = Instant.now().toEpochMilli() - reservationProperties.getHoldDuration().toMillis();
+        if (orderService.hasCheckoutInProgress(user.getId(), since)) {
+            throw new DuplicateResourceException(properties.getCheckoutInProgressError());
+        }
+
+        List<CartRowDTO> rows = cartRepository.findCartRowsByUserId(user.getId()).stream()
+                .filter(row -> row.getProductId() != null)
+                .toList();
+        if (rows.isEmpty()) {
+            throw new ValidationException(properties.getCartEmptyError());
+        }
+
+        PreparedCheckout prepared = new PreparedCheckout();
+        List<OrderLine> lines = new ArrayList<>(rows.size());
+        for (CartRowDTO row : rows) {
+            StockReservation reservation = stockReservationService.reserve(row.getProductId(), row.getQuantity(), orderNumber);
+            prepared.reservations.add(reservation);
+            prepared.reservationsExpireAt = Math.max(prepared.reservationsExpireAt, reservation.getExpiresAt());
+
+            OrderLine line = new OrderLine();
+            line.setProductId(row.getProductId());
+            line.setProductCode(row.getProductCode());
+            line.setProductName(row.getProductName());
+            line.setUnitPrice(row.getProductPrice() == null ? 0.0 : row.getProductPrice());
+            line.setQuantity(row.getQuantity());
+            lines.add(line);
+        }
+        prepared.order = orderService.createPendingOrder(user.getId(), orderNumber, currency, lines);
+        return prepared;
+    }
+
+    /**
+     * Release every reservation of a failed order. A reservation that cannot be released is left held
+     * for the expiry sweep, without stopping the release of the others.
+     */
+    private void releaseReservations(String orderNumber, List<StockReservation> reservations) {
+        for (StockReservation reservation : reservations) {
+            try {
+                stockReservationService.release(reservation.getId());
+            } catch (RuntimeException e) {
+                log.error("Failed to release reservation {} of order {}, leaving it to expire",
+                        reservation.getId(), orderNumber, e);
+            }
+        }
+    }
+
+    private static final class PreparedCheckout {
+        private final List<StockReservation> reservations = new ArrayList<>();
+        private Order order;
+        private long reservationsExpireAt;
+    }
+}
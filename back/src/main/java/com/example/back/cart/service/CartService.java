@@ -2,6 +2,8 @@ package com.example.back.cart.service;
 
 import com.example.back.auth.model.User;
 import com.example.back.auth.service.UserService;
+import com.example.back.cart.dto.projection.CartRowDTO;
+import com.example.back.cart.dto.projection.CartVersionDTO;
 import com.example.back.cart.dto.request.AddToCartRequestDTO;
 import com.example.back.cart.dto.response.CartResponseDTO;
 import com.example.back.cart.dto.request.UpdateCartItemRequestDTO;
@@ -11,8 +13,10 @@ import com.example.back.cart.model.ShoppingCart;
 import com.example.back.cart.properties.CartMessageProperties;
 import com.example.back.cart.repository.CartItemRepository;
 import com.example.back.cart.repository.ShoppingCartRepository;
+import com.example.back.common.dto.ResourceVersion;
 import com.example.back.common.exception.ResourceNotFoundException;
 import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.service.HotSkuInventory;
 import com.example.back.product.model.InventoryStatus;
 import com.example.back.product.model.Product;
 import com.example.back.product.service.ProductService;
@@ -23,6 +27,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -38,6 +45,7 @@ public class CartService {
     private final ShoppingCartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductService productService;
+    private final HotSkuInventory hotSkuInventory;
     private final UserService userService;
     private final CartMapper cartMapper;
     private final CartMessageProperties properties;
@@ -51,8 +59,26 @@ public class CartService {
     @Transactional(readOnly = true)
     public CartResponseDTO getCurrentUserCart() {
         User user = getCurrentUser();
-        ShoppingCart cart = getOrCreateCart(user);
-        return cartMapper.toCartResponseDTO(cart);
+
+        // Read-only path: select flat rows instead of hydrating the cart, item and product entities
+        List<CartRowDTO> rows = cartRepository.findCartRowsByUserId(user.getId());
+        if (rows.isEmpty()) {
+            return cartMapper.toCartResponseDTO(getOrCreateCart(user));
+        }
+
+        return cartMapper.toCartResponseDTO(rows);
+    }
+
+    /**
+     * Get the version of the current user's shopping cart, computed with a single aggregate query.
+     *
+     * @return an Optional containing the cart version, or empty if the user has no cart yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getCurrentUserCartVersion() {
+        User user = getCurrentUser();
+        return cartRepository.findCartVersionByUserId(user.getId())
+                .map(CartService::toResourceVersion);
     }
 
     /**
@@ -66,21 +92,9 @@ public class CartService {
         return productService.findProductById(productId);
     }
 
-    /**
-     * Find a cart item by cart and product.
-     *
-     * @param cart the shopping cart
-     * @param product the product
-     * @return the cart item
-     * @throws ResourceNotFoundException if the cart item is not found
-     */
-    private CartItem findCartItemByCartAndProduct(ShoppingCart cart, Product product) {
-        return cartItemRepository.findByCartAndProduct(cart, product)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item", "productId", product.getId()));
-    }
-
     /**
      * Add a product to the current user's cart.
+     * An existing line is incremented in place, a new line is inserted otherwise.
      *
      * @param addToCartDTO the add to cart DTO
      * @return the updated cart response DTO
@@ -90,7 +104,7 @@ public class CartService {
         validateAddToCartRequest(addToCartDTO);
 
         User user = getCurrentUser();
-        ShoppingCart cart = getOrCreateCart(user);
+        Long cartId = lockCart(user);
 
         Product product = findProductById(addToCartDTO.getProductId());
 
@@ -102,30 +116,26 @@ public class CartService {
         // Check if the requested quantity is available
         validateStockAvailability(product, addToCartDTO.getQuantity());
 
-        // Check if the product is already in the cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartAndProduct(cart, product);
+        // Increment the existing line, bounded by the available stock
+        int availableStock = getAvailableStock(product);
+        int updated = cartItemRepository.incrementQuantity(cartId, product.getId(),
+                addToCartDTO.getQuantity(), availableStock, Instant.now().toEpochMilli());
 
-        if (existingItem.isPresent()) {
-            // Update quantity
-            CartItem item = existingItem.get();
-            int newQuantity = item.getQuantity() + addToCartDTO.getQuantity();
+        if (updated == 0) {
+            if (cartItemRepository.existsByCartIdAndProductId(cartId, product.getId())) {
+                // The line exists, so the new quantity exceeds the available stock
+                throw new ValidationException(String.format(properties.getNotEnoughStock(), availableStock));
+            }
 
-            // Check if the new quantity is available
-            validateStockAvailability(product, newQuantity);
-
-            item.setQuantity(newQuantity);
-            cartItemRepository.save(item);
-        } else {
             // Create new cart item
             CartItem newItem = new CartItem();
-            newItem.setCart(cart);
+            newItem.setCart(cartRepository.getReferenceById(cartId));
             newItem.setProduct(product);
             newItem.setQuantity(addToCartDTO.getQuantity());
             cartItemRepository.save(newItem);
-            cart.getItems().add(newItem);
         }
 
-        return cartMapper.toCartResponseDTO(cart);
+        return renderCart(user);
     }
 
     /**
@@ -134,24 +144,27 @@ public class CartService {
      * @param productId the product ID
      * @param updateCartItemDTO the update cart item DTO
      * @return the updated cart response DTO
+     * @throws ResourceNotFoundException if the cart item is not found
      */
     @Transactional
     public CartResponseDTO updateCartItem(Long productId, UpdateCartItemRequestDTO updateCartItemDTO) {
         validateUpdateCartItemRequest(updateCartItemDTO);
 
         User user = getCurrentUser();
-        ShoppingCart cart = getOrCreateCart(user);
+        Long cartId = lockCart(user);
 
         Product product = findProductById(productId);
-        CartItem cartItem = findCartItemByCartAndProduct(cart, product);
 
         // Check if the requested quantity is available
         validateStockAvailability(product, updateCartItemDTO.getQuantity());
 
-        cartItem.setQuantity(updateCartItemDTO.getQuantity());
-        cartItemRepository.save(cartItem);
+        int updated = cartItemRepository.updateQuantity(cartId, productId,
+                updateCartItemDTO.getQuantity(), Instant.now().toEpochMilli());
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Cart item", "productId", productId);
+        }
 
-        return cartMapper.toCartResponseDTO(cart);
+        return renderCart(user);
     }
 
     /**
@@ -159,19 +172,19 @@ public class CartService {
      *
      * @param productId the product ID
      * @return the updated cart response DTO
+     * @throws ResourceNotFoundException if the cart item is not found
      */
     @Transactional
     public CartResponseDTO removeFromCart(Long productId) {
         User user = getCurrentUser();
-        ShoppingCart cart = getOrCreateCart(user);
+        Long cartId = lockCart(user);
 
-        Product product = findProductById(productId);
-        CartItem cartItem = findCartItemByCartAndProduct(cart, product);
-
-        cartItemRepository.delete(cartItem);
-        cart.getItems().remove(cartItem);
+        int deleted = cartItemRepository.deleteByCartIdAndProductId(cartId, productId);
+        if (deleted == 0) {
+            throw new ResourceNotFoundException("Cart item", "productId", productId);
+        }
 
-        return cartMapper.toCartResponseDTO(cart);
+        return renderCart(user);
     }
 
     /**
@@ -182,12 +195,25 @@ public class CartService {
     @Transactional
     public CartResponseDTO clearCart() {
         User user = getCurrentUser();
-        ShoppingCart cart = getOrCreateCart(user);
+        Long cartId = lockCart(user);
 
-        cartItemRepository.deleteByCart(cart);
-        cart.getItems().clear();
+        cartItemRepository.deleteAllByCartId(cartId);
 
-        return cartMapper.toCartResponseDTO(cart);
+        return renderCart(user);
+    }
+
+    /**
+     * Remove products from a user's cart once they are paid.
+     *
+     * @param userId the user ID
+     * @param productIds the IDs of the paid products
+     */
+    @Transactional
+    void removePaidItems(Long userId, Collection<Long> productIds) {
+        cartRepository.findIdByUserId(userId).ifPresent(cartId -> {
+            cartRepository.touch(cartId, Instant.now().toEpochMilli());
+            productIds.forEach(productId -> cartItemRepository.deleteByCartIdAndProductId(cartId, productId));
+        });
     }
 
     /**
@@ -196,7 +222,7 @@ public class CartService {
      * @return the current user
      * @throws ResourceNotFoundException if the user is not found or not authenticated
      */
-    private User getCurrentUser() {
+    User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null) {
@@ -207,12 +233,13 @@ public class CartService {
         String email = authentication.getName();
         log.debug("Getting user for email: {}", email);
 
-        return userService.findUserByEmail(email)
+        return userService.findUserByAuthentication(authentication)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 
     /**
      * Get the user's shopping cart or create a new one if it doesn't exist.
+     * The cart is loaded with its items and their products in a single query.
      *
      * @param user the user
      * @return the shopping cart
@@ -220,7 +247,7 @@ public class CartService {
     private ShoppingCart getOrCreateCart(User user) {
         Objects.requireNonNull(user, properties.getUserNullError());
 
-        return cartRepository.findByUser(user)
+        return cartRepository.findWithItemsByUser(user)
                 .orElseGet(() -> {
                     ShoppingCart newCart = new ShoppingCart();
                     newCart.setUser(user);
@@ -228,6 +255,63 @@ public class CartService {
                 });
     }
 
+    /**
+     * Get the ID of the user's shopping cart or create a new cart if it doesn't exist.
+     *
+     * @param user the user
+     * @return the shopping cart ID
+     */
+    private Long getOrCreateCartId(User user) {
+        Objects.requireNonNull(user, properties.getUserNullError());
+
+        return cartRepository.findIdByUserId(user.getId())
+                .orElseGet(() -> {
+                    ShoppingCart newCart = new ShoppingCart();
+                    newCart.setUser(user);
+                    return cartRepository.save(newCart).getId();
+                });
+    }
+
+    /**
+     * Get or create the user's shopping cart and mark it as modified, so that its version changes.
+     * Touching the cart first locks its row until the transaction ends, so concurrent changes to the same cart
+     * run one after the other: two first adds of a product cannot both miss the line and both insert it.
+     *
+     * @param user the user
+     * @return the shopping cart ID
+     */
+    private Long lockCart(User user) {
+        Long cartId = getOrCreateCartId(user);
+        cartRepository.touch(cartId, Instant.now().toEpochMilli());
+        return cartId;
+    }
+
+    /**
+     * Build the version of a shopping cart from its aggregate.
+     * The last modification is the latest change of the cart or of one of its products.
+     *
+     * @param version the cart aggregate
+     * @return the cart version
+     */
+    private static ResourceVersion toResourceVersion(CartVersionDTO version) {
+        long cartUpdatedAt = version.getCartUpdatedAt() == null ? -1 : version.getCartUpdatedAt();
+        long productsUpdatedAt = version.getProductsUpdatedAt() == null ? -1 : version.getProductsUpdatedAt();
+        String etag = String.format("cart-%d-%d-%d-%d-%d", version.getCartId(), cartUpdatedAt,
+                version.getItemCount(), version.getQuantitySum() == null ? 0 : version.getQuantitySum(),
+                productsUpdatedAt);
+        return new ResourceVersion(etag, Math.max(cartUpdatedAt, productsUpdatedAt));
+    }
+
+    /**
+     * Render the user's shopping cart from its flat projection rows.
+     *
+     * @param user the user
+     * @return the shopping cart response DTO
+     */
+    private CartResponseDTO renderCart(User user) {
+        return cartMapper.toCartResponseDTO(cartRepository.findCartRowsByUserId(user.getId()));
+    }
+
     /**
      * Validate an add to cart request.
      *
@@ -267,8 +351,23 @@ public class CartService {
     private void validateStockAvailability(Product product, int requestedQuantity) {
         Objects.requireNonNull(product, properties.getProductNullError());
 
-        if (product.getQuantity() < requestedQuantity) {
-            throw new ValidationException(String.format(properties.getNotEnoughStock(), product.getQuantity()));
+        int availableStock = getAvailableStock(product);
+        if (availableStock < requestedQuantity) {
+            throw new ValidationException(String.format(properties.getNotEnoughStock(), availableStock));
+        }
+    }
+
+    /**
+     * Get the stock available for a product.
+     * Hot products are answered by the in-memory inventory, other products by their stored quantity.
+     *
+     * @param product the product
+     * @return the available stock
+     */
+    private int getAvailableStock(Product product) {
+        if (hotSkuInventory.isHot(product.getId())) {
+            return (int) Math.min(Integer.MAX_VALUE, hotSkuInventory.available(product.getId()));
         }
+        return product.getQuantity();
     }
 }
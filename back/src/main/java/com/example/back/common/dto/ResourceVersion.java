@@ -0,0 +1,20 @@
+package com.example.back.common.dto;
+
+import lombok.Value;
+
+/**
+ * Version of a resource, used to answer conditional GET requests without building the response body.
+ */
+@Value
+public class ResourceVersion {
+
+    /**
+     * Strong entity tag, without the surrounding quotes.
+     */
+    String etag;
+
+    /**
+     * Last modification timestamp in epoch milliseconds, or -1 when unknown.
+     */
+    long lastModified;
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,7 +29,10 @@ public class GlobalExceptionHandler {
     private static final String BAD_REQUEST = "Bad Request";
     private static final String UNAUTHORIZED = "Unauthorized";
     private static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
+    private static final String SERVICE_UNAVAILABLE = "Service Unavailable";
+    private static final String UNPROCESSABLE_ENTITY = "Unprocessable Entity";
     private static final String DATABASE_CONSTRAINT_VIOLATION = "Database constraint violation";
+    private static final String CONCURRENT_MODIFICATION = "The resource was modified concurrently, please reload it and retry";
     private static final String VALIDATION_FAILED = "Validation failed: ";
     private static final String INVALID_PARAMETER_VALUE = "Invalid parameter value: %s";
     private static final String UNEXPECTED_ERROR = "An unexpected error occurred: %s";
@@ -112,6 +116,45 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.CONFLICT, CONFLICT, message, request);
     }
 
+    /**
+     * Handles ObjectOptimisticLockingFailureException by creating a CONFLICT error response.
+     *
+     * @param ex      the exception
+     * @param request the HTTP request
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDTO> handleObjectOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex, HttpServletRequest request) {
+        return createErrorResponse(HttpStatus.CONFLICT, CONFLICT, CONCURRENT_MODIFICATION, request);
+    }
+
+    /**
+     * Handles PaymentUnavailableException by creating a SERVICE_UNAVAILABLE error response.
+     *
+     * @param ex      the exception
+     * @param request the HTTP request
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(PaymentUnavailableException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePaymentUnavailableException(
+            PaymentUnavailableException ex, HttpServletRequest request) {
+        return handleException(ex, HttpStatus.SERVICE_UNAVAILABLE, SERVICE_UNAVAILABLE, request);
+    }
+
+    /**
+     * Handles IdempotencyKeyReuseException by creating an UNPROCESSABLE_ENTITY error response.
+     *
+     * @param ex      the exception
+     * @param request the HTTP request
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyReuseException(
+            IdempotencyKeyReuseException ex, HttpServletRequest request) {
+        return handleException(ex, HttpStatus.UNPROCESSABLE_ENTITY, UNPROCESSABLE_ENTITY, request);
+    }
+
     /**
      * Handles MethodArgumentTypeMismatchException by creating an error response with a formatted message.
      *
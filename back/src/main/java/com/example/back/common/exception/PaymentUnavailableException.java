@@ -0,0 +1,11 @@
+package com.example.back.common.exception;
+
+/**
+ * Exception thrown when the payment provider is known to be unavailable and the call is not attempted.
+ */
+public class PaymentUnavailableException extends PaymentException {
+
+    public PaymentUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.back.common.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through loading of an asynchronous Caffeine cache on the calling thread.
+ * Concurrent misses on the same key share a single load. Only an empty future is created under the cache's
+ * map lock, so the loader never blocks inside it: blocking on JDBC there would pin a virtual thread's carrier.
+ * The thread that created the future runs the loader, the others wait for its result. The pending future is
+ * what the cache holds, so invalidating the key drops a load that overlapped a change.
+ */
+public final class AsyncCacheLoader {
+
+    private AsyncCacheLoader() {
+    }
+
+    /**
+     * Get a value from the cache, loading it on a miss.
+     * A failed load is removed from the cache and its exception rethrown, the next reader tries again.
+     *
+     * @param cache the cache
+     * @param key the key
+     * @param loader the function loading the value
+     * @return the cached value
+     */
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
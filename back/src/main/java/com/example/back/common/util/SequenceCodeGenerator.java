@@ -0,0 +1,97 @@
+package com.example.back.common.util;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generator of unique, increasing codes combining a timestamp, the node ID of the instance and a sequence.
+ * A code packs 41 bits of milliseconds since 2025-01-01, 10 bits of node ID and 12 bits of sequence,
+ * written in base 36 after a prefix. Codes are unique as long as every running instance uses its own
+ * node ID, and no database query is needed to generate them.
+ * Up to 4096 codes can be generated per millisecond and node; beyond that, and when the clock goes
+ * backwards, the generator keeps counting on from the last timestamp instead of waiting.
+ */
+public class SequenceCodeGenerator {
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final String prefix;
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    /**
+     * Last issued timestamp and sequence, packed as (milliseconds since epoch << SEQUENCE_BITS) | sequence.
+     * Incrementing it carries a sequence overflow into the next millisecond.
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * @param name the name of the codes, used in the error message of an invalid node ID
+     * @param prefix the prefix of the codes
+     * @param nodeId the node ID of the instance, between 0 and {@link #MAX_NODE_ID}
+     * @param clock the current time in milliseconds
+     * @throws IllegalStateException if the node ID is out of range
+     */
+    public SequenceCodeGenerator(String name, String prefix, long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException(String.format(
+                    "%s node ID must be between 0 and %d, got %d", name, MAX_NODE_ID, nodeId));
+        }
+        this.prefix = prefix;
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * Generate the next code.
+     *
+     * @return a code greater than every code generated or seeded before
+     */
+    public String next() {
+        long state = nextState();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+
+        long value = (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        return prefix + Long.toString(value, Character.MAX_RADIX).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Resume after the first of the given codes that was issued by this scheme.
+     * The node ID bits are dropped, so the state resumes after the highest code of any node.
+     *
+     * @param codes the highest stored codes, highest first
+     * @return the code resumed after, or null if none was issued by this scheme
+     */
+    public String seed(List<String> codes) {
+        for (String code : codes) {
+            try {
+                long value = Long.parseLong(code.substring(prefix.length()), Character.MAX_RADIX);
+                long timestamp = value >>> (NODE_BITS + SEQUENCE_BITS);
+                long sequence = value & ((1L << SEQUENCE_BITS) - 1);
+                lastState.set((timestamp << SEQUENCE_BITS) | sequence);
+                return code;
+            } catch (NumberFormatException e) {
+                // A code entered by hand, not issued by this generator
+            }
+        }
+        return null;
+    }
+
+    private long nextState() {
+        while (true) {
+            long previous = lastState.get();
+            long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+            long next = now > previous ? now : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+}
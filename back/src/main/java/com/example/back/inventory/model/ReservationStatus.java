@@ -0,0 +1,5 @@
+package com.example.back.inventory.model;
+
+public enum ReservationStatus {
+    HELD, CONFIRMED, RELEASED, EXPIRED
+}
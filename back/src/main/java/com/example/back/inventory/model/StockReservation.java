@@ -0,0 +1,69 @@
+package com.example.back.inventory.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for StockReservation.
+ * This class represents a quantity of a product held out of stock until it is confirmed,
+ * released, or its hold expires.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "idx_stock_reservations_reference", columnList = "reference")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "Product is required")
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Column(nullable = false)
+    private Integer quantity;
+
+    /**
+     * Business reference of the holder, such as a cart or an order.
+     */
+    @Column(length = 100)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    @JoinColumn(name = "created_at")
+    private Long createdAt;
+
+    @JoinColumn(name = "updated_at")
+    private Long updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now().toEpochMilli();
+        updatedAt = Instant.now().toEpochMilli();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now().toEpochMilli();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.back.inventory.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "hot-sku")
+@Configuration
+@Data
+public class HotSkuProperties {
+    private Set<Long> productIds = new HashSet<>();
+    private int stripes;
+    private Duration reconcileInterval;
+}
@@ -0,0 +1,14 @@
+package com.example.back.inventory.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "inventory-messages")
+@Configuration
+@Data
+public class InventoryMessageProperties {
+    private String quantityMustBePositive;
+    private String notEnoughStock;
+    private String reservationNotHeld;
+}
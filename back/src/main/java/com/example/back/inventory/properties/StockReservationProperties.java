@@ -0,0 +1,17 @@
+package com.example.back.inventory.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "stock-reservation")
+@Configuration
+@Data
+public class StockReservationProperties {
+    private Duration holdDuration;
+    private Duration chargedHoldDuration;
+    private Duration releaseInterval;
+    private int releaseBatchSize;
+}
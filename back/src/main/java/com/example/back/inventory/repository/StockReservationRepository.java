@@ -0,0 +1,112 @@
+package com.example.back.inventory.repository;
+
+import com.example.back.inventory.model.ReservationStatus;
+import com.example.back.inventory.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for StockReservation entity.
+ * Status transitions are conditional updates, so that a reservation leaves the HELD status exactly once
+ * even when a confirmation, a release and the expiry sweep race for it.
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Find the held reservations whose hold has expired, oldest first.
+     *
+     * @param now the current timestamp
+     * @param pageable the batch limit
+     * @return the expired reservations
+     */
+    @Query("""
+            SELECT r FROM StockReservation r
+            WHERE r.status = com.example.back.inventory.model.ReservationStatus.HELD
+              AND r.expiresAt <= :now
+            ORDER BY r.expiresAt
+            """)
+    List<StockReservation> findExpired(@Param("now") Long now, Pageable pageable);
+
+    /**
+     * Find the reservations made for a business reference.
+     *
+     * @param reference the business reference
+     * @return the reservations
+     */
+    List<StockReservation> findByReference(String reference);
+
+    /**
+     * Confirm a held reservation whose hold has not expired yet.
+     *
+     * @param id the reservation ID
+     * @param now the current timestamp
+     * @return 1 if the reservation was confirmed, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = com.example.back.inventory.model.ReservationStatus.CONFIRMED, r.updatedAt = :now
+            WHERE r.id = :id
+              AND r.status = com.example.back.inventory.model.ReservationStatus.HELD
+              AND r.expiresAt > :now
+            """)
+    int confirm(@Param("id") Long id, @Param("now") Long now);
+
+    /**
+     * Confirm the held reservations of a business reference, whether or not their hold has expired.
+     * Used once the holder has paid: a reservation still held still has its stock taken.
+     *
+     * @param reference the business reference
+     * @param now the current timestamp
+     * @return the number of reservations confirmed
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = com.example.back.inventory.model.ReservationStatus.CONFIRMED, r.updatedAt = :now
+            WHERE r.reference = :reference
+              AND r.status = com.example.back.inventory.model.ReservationStatus.HELD
+            """)
+    int confirmByReference(@Param("reference") String reference, @Param("now") Long now);
+
+    /**
+     * Move a held reservation to a final status.
+     *
+     * @param id the reservation ID
+     * @param status the final status, RELEASED or EXPIRED
+     * @param now the current timestamp
+     * @return 1 if the reservation was still held, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = :status, r.updatedAt = :now
+            WHERE r.id = :id
+              AND r.status = com.example.back.inventory.model.ReservationStatus.HELD
+            """)
+    int close(@Param("id") Long id, @Param("status") ReservationStatus status, @Param("now") Long now);
+
+    /**
+     * Move the expiry of the held reservations of a business reference.
+     *
+     * @param reference the business reference
+     * @param expiresAt the new expiry timestamp
+     * @param now the current timestamp
+     * @return the number of reservations updated
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.expiresAt = :expiresAt, r.updatedAt = :now
+            WHERE r.reference = :reference
+              AND r.status = com.example.back.inventory.model.ReservationStatus.HELD
+            """)
+    int extendHold(@Param("reference") String reference, @Param("expiresAt") Long expiresAt, @Param("now") Long now);
+}
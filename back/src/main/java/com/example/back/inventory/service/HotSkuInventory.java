@@ -0,0 +1,211 @@
+package com.example.back.inventory.service;
+
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.inventory.properties.HotSkuProperties;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductCache;
+import com.example.back.product.service.ProductCatalogVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory inventory for hot products, enabled per product ID in the "hot-sku" configuration.
+ * The stock of a hot product is seeded from the database on first use and then served by a
+ * {@link StripedStockCounter}, so flash-sale traffic no longer contends on the product row.
+ * Stock movements are accumulated and written back to the database in periodic batches.
+ * Between two reconciliations the database quantity lags behind the in-memory counter.
+ * <p>
+ * The counters are local to this JVM and each instance seeds them from the full stored quantity, so
+ * this inventory is only correct on a single node: with N instances serving the same hot product,
+ * up to N times its stock can be sold. Deployments running several instances must leave
+ * "hot-sku.product-ids" empty, which keeps every product on the conditional row decrement.
+ */
+@Component
+@Slf4j
+public class HotSkuInventory {
+
+    private final HotSkuProperties properties;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductCatalogVersion productCatalogVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, HotSku> skus = new ConcurrentHashMap<>();
+
+    public HotSkuInventory(HotSkuProperties properties, ProductRepository productRepository,
+                           ProductCache productCache, ProductCatalogVersion productCatalogVersion,
+                           TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productCatalogVersion = productCatalogVersion;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Check if a product is managed by the hot SKU inventory.
+     *
+     * @param productId the product ID
+     * @return true if the product is a hot SKU, false otherwise
+     */
+    public boolean isHot(Long productId) {
+        return productId != null && properties.getProductIds().contains(productId);
+    }
+
+    /**
+     * Get the stock currently available for a hot product.
+     *
+     * @param productId the product ID
+     * @return the available stock
+     * @throws ResourceNotFoundException if the product is not found
+     */
+    public long available(Long productId) {
+        return sku(productId).counter.available();
+    }
+
+    /**
+     * Try to take a quantity of a hot product out of stock.
+     * When called inside a transaction, the quantity is given back if the transaction rolls back.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity to take
+     * @return true if the quantity was taken, false if not enough stock is available
+     * @throws ResourceNotFoundException if the product is not found
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        HotSku sku = sku(productId);
+        if (!sku.counter.tryAcquire(quantity)) {
+            return false;
+        }
+        sku.pendingWithdrawal.add(quantity);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        giveBack(sku, quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Give a quantity of a hot product back to stock.
+     * When called inside a transaction, the quantity is only given back once the transaction commits.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity to give back
+     * @throws ResourceNotFoundException if the product is not found
+     */
+    public void release(Long productId, int quantity) {
+        HotSku sku = sku(productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    giveBack(sku, quantity);
+                }
+            });
+        } else {
+            giveBack(sku, quantity);
+        }
+    }
+
+    /**
+     * Write the accumulated stock movements of the hot products back to the database.
+     * Each product is written in its own transaction; a failed write is kept for the next run.
+     */
+    @Scheduled(fixedDelayString = "${hot-sku.reconcile-interval}")
+    public void reconcile() {
+        skus.forEach((productId, sku) -> {
+            long withdrawal = sku.pendingWithdrawal.sumThenReset();
+            if (withdrawal == 0) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> productRepository.adjustStock(
+                        productId, Math.toIntExact(-withdrawal), Instant.now().toEpochMilli()));
+                productCache.evict(productId);
+                productCatalogVersion.stockChanged();
+                log.debug("Reconciled hot product {} with a stock delta of {}", productId, -withdrawal);
+            } catch (RuntimeException e) {
+                sku.pendingWithdrawal.add(withdrawal);
+                log.warn("Failed to reconcile hot product {}, retrying on next run", productId, e);
+            }
+        });
+    }
+
+    /**
+     * Keep the in-memory stock of hot products in line with committed product changes.
+     *
+     * @param event the product change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case DELETED -> skus.remove(event.getProductId());
+            case UPDATED -> {
+                HotSku sku = skus.get(event.getProductId());
+                Integer previousQuantity = event.getPreviousQuantity();
+                Integer quantity = event.getProduct().getQuantity();
+                if (sku != null && previousQuantity != null && quantity != null && !quantity.equals(previousQuantity)) {
+                    sku.counter.adjust((long) quantity - previousQuantity);
+                }
+            }
+            default -> {
+                // A new product is seeded on first use
+            }
+        }
+    }
+
+    private HotSku sku(Long productId) {
+        HotSku sku = skus.get(productId);
+        if (sku != null) {
+            return sku;
+        }
+        // Seed outside the map's bin lock so the query does not pin a virtual thread's carrier
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        long stock = product.getQuantity() == null ? 0 : product.getQuantity();
+        HotSku seeded = new HotSku(new StripedStockCounter(properties.getStripes(), stock));
+        HotSku existing = skus.putIfAbsent(productId, seeded);
+        if (existing != null) {
+            return existing;
+        }
+        log.info("Seeding hot product {} with a stock of {}", productId, stock);
+        return seeded;
+    }
+
+    private static void giveBack(HotSku sku, int quantity) {
+        sku.counter.release(quantity);
+        sku.pendingWithdrawal.add(-quantity);
+    }
+
+    /**
+     * In-memory stock of a hot product and the withdrawal not yet written to the database.
+     */
+    private static final class HotSku {
+        private final StripedStockCounter counter;
+        private final LongAdder pendingWithdrawal = new LongAdder();
+
+        private HotSku(StripedStockCounter counter) {
+            this.counter = counter;
+        }
+    }
+}
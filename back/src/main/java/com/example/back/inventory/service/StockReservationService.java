@@ -0,0 +1,202 @@
+package com.example.back.inventory.service;
+
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.model.ReservationStatus;
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.properties.InventoryMessageProperties;
+import com.example.back.inventory.properties.StockReservationProperties;
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductCache;
+import com.example.back.product.service.ProductCatalogVersion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service class for stock reservations.
+ * Stock is taken out of the product with a conditional decrement when it is reserved, and given back
+ * when the reservation is released or its hold expires. No row lock is held between these steps.
+ * The stock of hot products is taken from the {@link HotSkuInventory} instead of the product row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductCatalogVersion productCatalogVersion;
+    private final HotSkuInventory hotSkuInventory;
+    private final StockReservationProperties reservationProperties;
+    private final InventoryMessageProperties properties;
+
+    /**
+     * Reserve a quantity of a product.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity to reserve
+     * @param reference the business reference of the holder
+     * @return the held reservation
+     * @throws ValidationException if the quantity is not positive or not enough stock is available
+     */
+    @Transactional
+    public StockReservation reserve(Long productId, int quantity, String reference) {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        if (quantity <= 0) {
+            throw new ValidationException(properties.getQuantityMustBePositive());
+        }
+
+        long now = Instant.now().toEpochMilli();
+        if (hotSkuInventory.isHot(productId)) {
+            if (!hotSkuInventory.tryReserve(productId, quantity)) {
+                throw new ValidationException(String.format(properties.getNotEnoughStock(), productId));
+            }
+        } else {
+            if (productRepository.decrementStock(productId, quantity, now) == 0) {
+                throw new ValidationException(String.format(properties.getNotEnoughStock(), productId));
+            }
+            productCache.evict(productId);
+            productCatalogVersion.stockChanged();
+        }
+
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setReference(reference);
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setExpiresAt(now + reservationProperties.getHoldDuration().toMillis());
+
+        StockReservation savedReservation = reservationRepository.save(reservation);
+        log.debug("Reserved {} of product {} with reservation {}", quantity, productId, savedReservation.getId());
+        return savedReservation;
+    }
+
+    /**
+     * Confirm a held reservation, making the stock removal permanent.
+     *
+     * @param reservationId the reservation ID
+     * @throws ValidationException if the reservation is no longer held or its hold has expired
+     */
+    @Transactional
+    public void confirm(Long reservationId) {
+        if (reservationRepository.confirm(reservationId, Instant.now().toEpochMilli()) == 0) {
+            throw new ValidationException(String.format(properties.getReservationNotHeld(), reservationId));
+        }
+        log.debug("Confirmed reservation {}", reservationId);
+    }
+
+    /**
+     * Confirm every held reservation of a business reference once it is paid, making the stock removal permanent.
+     * Reservations already released or expired are left as they are.
+     *
+     * @param reference the business reference of the holder
+     * @return the number of reservations confirmed
+     */
+    @Transactional
+    public int confirmAll(String reference) {
+        int confirmed = reservationRepository.confirmByReference(reference, Instant.now().toEpochMilli());
+        log.debug("Confirmed {} reservations of {}", confirmed, reference);
+        return confirmed;
+    }
+
+    /**
+     * Keep the held reservations of a business reference out of the expiry sweep for a longer hold,
+     * while the outcome of a payment created for them is awaited.
+     *
+     * @param reference the business reference of the holder
+     * @param hold the new hold duration, from now
+     * @return the expiry timestamp of the reservations
+     */
+    @Transactional
+    public long extendHold(String reference, Duration hold) {
+        long now = Instant.now().toEpochMilli();
+        long expiresAt = now + hold.toMillis();
+        int extended = reservationRepository.extendHold(reference, expiresAt, now);
+        log.debug("Extended the hold of {} reservations of {} until {}", extended, reference, expiresAt);
+        return expiresAt;
+    }
+
+    /**
+     * Find the reservations made for a business reference.
+     *
+     * @param reference the business reference of the holder
+     * @return the reservations
+     */
+    @Transactional(readOnly = true)
+    public List<StockReservation> findByReference(String reference) {
+        return reservationRepository.findByReference(reference);
+    }
+
+    /**
+     * Release a held reservation, giving its quantity back to stock.
+     * Releasing a reservation that is no longer held has no effect.
+     *
+     * @param reservationId the reservation ID
+     * @throws ResourceNotFoundException if the reservation is not found
+     */
+    @Transactional
+    public void release(Long reservationId) {
+        StockReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock reservation", "id", reservationId));
+        close(reservation, ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Give back the stock of the held reservations whose hold has expired.
+     * Runs periodically, one bounded batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${stock-reservation.release-interval}")
+    @Transactional
+    public void releaseExpired() {
+        List<StockReservation> expired = reservationRepository.findExpired(
+                Instant.now().toEpochMilli(), PageRequest.of(0, reservationProperties.getReleaseBatchSize()));
+
+        int released = 0;
+        for (StockReservation reservation : expired) {
+            if (close(reservation, ReservationStatus.EXPIRED)) {
+                released++;
+            }
+        }
+
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    /**
+     * Move a held reservation to a final status and give its quantity back to stock.
+     * Only the caller winning the status transition gives the stock back.
+     *
+     * @param reservation the reservation
+     * @param status the final status
+     * @return true if the stock was given back, false if the reservation was no longer held
+     */
+    private boolean close(StockReservation reservation, ReservationStatus status) {
+        long now = Instant.now().toEpochMilli();
+        if (reservationRepository.close(reservation.getId(), status, now) == 0) {
+            return false;
+        }
+
+        if (hotSkuInventory.isHot(reservation.getProductId())) {
+            hotSkuInventory.release(reservation.getProductId(), reservation.getQuantity());
+        } else {
+            productRepository.incrementStock(reservation.getProductId(), reservation.getQuantity(), now);
+            productCache.evict(reservation.getProductId());
+            productCatalogVersion.stockChanged();
+        }
+        log.debug("Reservation {} {}, {} of product {} back in stock",
+                reservation.getId(), status, reservation.getQuantity(), reservation.getProductId());
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.back.inventory.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock counter split into independent stripes to spread contention between threads.
+ * Each stripe holds a share of the stock and is decremented with a compare-and-set, so concurrent
+ * acquisitions only collide when they land on the same stripe. The stock is never oversold:
+ * every unit belongs to exactly one stripe, or to the thread rebalancing them.
+ * When no single stripe can serve a request, the stripes are drained and redistributed under a lock.
+ */
+public class StripedStockCounter {
+
+    /**
+     * Distance between two stripes in the array, 8 longs keeping each stripe on its own cache line.
+     */
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    public StripedStockCounter(int stripes, long initialStock) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1");
+        }
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("Initial stock cannot be negative");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        distribute(initialStock);
+    }
+
+    /**
+     * Try to take a quantity out of stock.
+     *
+     * @param quantity the quantity to take
+     * @return true if the quantity was taken, false if not enough stock is available
+     */
+    public boolean tryAcquire(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (tryAcquireFromStripe((start + i) % stripes, quantity)) {
+                return true;
+            }
+        }
+        return acquireSlow(quantity);
+    }
+
+    /**
+     * Give a quantity back to stock.
+     *
+     * @param quantity the quantity to give back
+     */
+    public void release(long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+    }
+
+    /**
+     * Apply an external stock change, such as a manual stock correction.
+     * A negative delta larger than the available stock leaves the counter at zero.
+     *
+     * @param delta the quantity to add, negative to remove stock
+     */
+    public void adjust(long delta) {
+        if (delta >= 0) {
+            release(delta);
+            return;
+        }
+
+        rebalanceLock.lock();
+        try {
+            distribute(Math.max(0, drain() + delta));
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Get the stock currently available.
+     * The value is a snapshot and may already be stale when concurrent updates are in progress.
+     *
+     * @return the available stock
+     */
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private boolean tryAcquireFromStripe(int stripe, long quantity) {
+        int index = stripe * PADDING;
+        long current;
+        while ((current = cells.get(index)) >= quantity) {
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gather the stock of every stripe to serve a quantity no single stripe can cover.
+     */
+    private boolean acquireSlow(long quantity) {
+        rebalanceLock.lock();
+        try {
+            long drained = drain();
+            if (drained >= quantity) {
+                distribute(drained - quantity);
+                return true;
+            }
+            distribute(drained);
+            return false;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    private void distribute(long stock) {
+        long share = stock / stripes;
+        long remainder = stock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.back.order.controller;
+
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.order.dto.response.OrderPageResponseDTO;
+import com.example.back.order.dto.response.OrderResponseDTO;
+import com.example.back.order.dto.response.OrderStatusHistoryResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Interface defining order history endpoints with Swagger documentation.
+ */
+@Tag(name = "Orders", description = "API for order history operations")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequestMapping("/orders")
+public interface OrderApi {
+
+    /**
+     * Endpoint to retrieve one page of the current user's orders, most recent first.
+     *
+     * @param after the cursor returned by the previous page
+     * @param size the page size
+     * @return the page of orders
+     * @throws ValidationException if the page size or the cursor is invalid
+     */
+    @Operation(
+            summary = "Get current user's orders",
+            description = "Retrieves the current user's orders, most recent first, with cursor-based pagination"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Orders successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderPageResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page size or cursor",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping
+    ResponseEntity<OrderPageResponseDTO> getOrders(
+            @Parameter(description = "Cursor returned as next_cursor by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size);
+
+    /**
+     * Endpoint to retrieve one of the current user's orders.
+     *
+     * @param orderNumber the order number
+     * @return the order with its lines
+     * @throws ResourceNotFoundException if the order is not found
+     */
+    @Operation(
+            summary = "Get order by number",
+            description = "Retrieves one of the current user's orders with its lines"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Order successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Order not found",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{orderNumber}")
+    ResponseEntity<OrderResponseDTO> getOrder(
+            @Parameter(description = "Order number", required = true)
+            @PathVariable String orderNumber);
+
+    /**
+     * Endpoint to retrieve the status history of one of the current user's orders.
+     *
+     * @param orderNumber the order number
+     * @return the status changes, oldest first
+     * @throws ResourceNotFoundException if the order is not found
+     */
+    @Operation(
+            summary = "Get order status history",
+            description = "Retrieves the status changes of one of the current user's orders, oldest first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Status history successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = OrderStatusHistoryResponseDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Order not found",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{orderNumber}/history")
+    ResponseEntity<List<OrderStatusHistoryResponseDTO>> getOrderHistory(
+            @Parameter(description = "Order number", required = true)
+            @PathVariable String orderNumber);
+
+    /**
+     * Endpoint to retrieve the current user's orders by payment reference.
+     *
+     * @param reference the order number sent as payment reference, or the charge ID of the payment provider
+     * @return the matching orders
+     */
+    @Operation(
+            summary = "Get orders by payment reference",
+            description = "Retrieves the current user's orders whose order number, sent as payment and merchant reference, or charge ID matches"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Orders successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = OrderResponseDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/by-reference/{reference}")
+    ResponseEntity<List<OrderResponseDTO>> getOrdersByReference(
+            @Parameter(description = "Order number or charge ID", required = true)
+            @PathVariable String reference);
+}
@@ -0,0 +1,60 @@
+package com.example.back.order.controller;
+
+import com.example.back.order.dto.response.OrderPageResponseDTO;
+import com.example.back.order.dto.response.OrderResponseDTO;
+import com.example.back.order.dto.response.OrderStatusHistoryResponseDTO;
+import com.example.back.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for order history endpoints.
+ * Orders are created by the cart checkout and can only be read here.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class OrderController implements OrderApi {
+
+    private final OrderService orderService;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<OrderPageResponseDTO> getOrders(String after, Integer size) {
+        log.debug("REST request to get current user's orders, after: {}, size: {}", after, size);
+        return ResponseEntity.ok(orderService.getCurrentUserOrders(after, size));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<OrderResponseDTO> getOrder(String orderNumber) {
+        log.debug("REST request to get order: {}", orderNumber);
+        return ResponseEntity.ok(orderService.getCurrentUserOrder(orderNumber));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<List<OrderStatusHistoryResponseDTO>> getOrderHistory(String orderNumber) {
+        log.debug("REST request to get status history of order: {}", orderNumber);
+        return ResponseEntity.ok(orderService.getCurrentUserOrderHistory(orderNumber));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<List<OrderResponseDTO>> getOrdersByReference(String reference) {
+        log.debug("REST request to get orders by reference: {}", reference);
+        return ResponseEntity.ok(orderService.getCurrentUserOrdersByReference(reference));
+    }
+}
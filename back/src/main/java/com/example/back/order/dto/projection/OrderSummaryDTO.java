@@ -0,0 +1,27 @@
+package com.example.back.order.dto.projection;
+
+import com.example.back.order.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of an order without its lines, used to list the order history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    @JsonProperty("order_number")
+    private String orderNumber;
+    private OrderStatus status;
+    private String currency;
+    @JsonProperty("total_amount")
+    private Double totalAmount;
+    @JsonProperty("item_count")
+    private Integer itemCount;
+    @JsonProperty("created_at")
+    private Long createdAt;
+}
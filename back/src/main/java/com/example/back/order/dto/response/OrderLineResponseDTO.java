@@ -0,0 +1,26 @@
+package com.example.back.order.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for order line responses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineResponseDTO {
+    @JsonProperty("product_id")
+    private Long productId;
+    @JsonProperty("product_code")
+    private String productCode;
+    @JsonProperty("product_name")
+    private String productName;
+    @JsonProperty("unit_price")
+    private Double unitPrice;
+    private Integer quantity;
+    @JsonProperty("line_total")
+    private Double lineTotal;
+}
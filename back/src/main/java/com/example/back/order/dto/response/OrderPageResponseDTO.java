@@ -0,0 +1,27 @@
+package com.example.back.order.dto.response;
+
+import com.example.back.order.dto.projection.OrderSummaryDTO;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for paginated order history responses.
+ * The next cursor must be sent back as the after parameter to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponseDTO {
+
+    private List<OrderSummaryDTO> items = new ArrayList<>();
+    private Integer size;
+    @JsonProperty("has_next")
+    private Boolean hasNext;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
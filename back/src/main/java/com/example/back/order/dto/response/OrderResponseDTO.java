@@ -0,0 +1,38 @@
+package com.example.back.order.dto.response;
+
+import com.example.back.order.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for order responses.
+ * This class is used to send an order with its lines to clients.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponseDTO {
+    private Long id;
+    @JsonProperty("order_number")
+    private String orderNumber;
+    private OrderStatus status;
+    private String currency;
+    @JsonProperty("total_amount")
+    private Double totalAmount;
+    @JsonProperty("item_count")
+    private Integer itemCount;
+    @JsonProperty("charge_id")
+    private String chargeId;
+    @JsonProperty("checkout_url")
+    private String checkoutUrl;
+    private List<OrderLineResponseDTO> lines = new ArrayList<>();
+    @JsonProperty("created_at")
+    private Long createdAt;
+    @JsonProperty("updated_at")
+    private Long updatedAt;
+}
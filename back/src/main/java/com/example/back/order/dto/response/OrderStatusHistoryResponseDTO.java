@@ -0,0 +1,20 @@
+package com.example.back.order.dto.response;
+
+import com.example.back.order.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for order status change responses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusHistoryResponseDTO {
+    private OrderStatus status;
+    private String note;
+    @JsonProperty("created_at")
+    private Long createdAt;
+}
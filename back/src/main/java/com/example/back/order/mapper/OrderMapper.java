@@ -0,0 +1,73 @@
+package com.example.back.order.mapper;
+
+import com.example.back.order.dto.response.OrderLineResponseDTO;
+import com.example.back.order.dto.response.OrderResponseDTO;
+import com.example.back.order.dto.response.OrderStatusHistoryResponseDTO;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderLine;
+import com.example.back.order.model.OrderStatusHistory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mapper class to convert Order entities to DTOs.
+ */
+@Component
+public class OrderMapper {
+
+    /**
+     * Converts an Order entity, with its lines, to an OrderResponseDTO.
+     *
+     * @param order the Order entity
+     * @return the OrderResponseDTO
+     */
+    public OrderResponseDTO toResponseDTO(Order order) {
+        if (order == null) {
+            return null;
+        }
+
+        return new OrderResponseDTO(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus(),
+                order.getCurrency(),
+                order.getTotalAmount(),
+                order.getItemCount(),
+                order.getChargeId(),
+                order.getCheckoutUrl(),
+                order.getLines().stream().map(this::toLineResponseDTO).toList(),
+                order.getCreatedAt(),
+                order.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Converts an OrderLine entity to an OrderLineResponseDTO.
+     *
+     * @param line the OrderLine entity
+     * @return the OrderLineResponseDTO
+     */
+    public OrderLineResponseDTO toLineResponseDTO(OrderLine line) {
+        return new OrderLineResponseDTO(
+                line.getProductId(),
+                line.getProductCode(),
+                line.getProductName(),
+                line.getUnitPrice(),
+                line.getQuantity(),
+                line.getLineTotal()
+        );
+    }
+
+    /**
+     * Converts status history entries to DTOs.
+     *
+     * @param history the status history entries
+     * @return the list of OrderStatusHistoryResponseDTO
+     */
+    public List<OrderStatusHistoryResponseDTO> toHistoryResponseDTOList(List<OrderStatusHistory> history) {
+        return history.stream()
+                .map(entry -> new OrderStatusHistoryResponseDTO(entry.getStatus(), entry.getNote(), entry.getCreatedAt()))
+                .toList();
+    }
+}
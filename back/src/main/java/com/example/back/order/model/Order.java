@@ -0,0 +1,98 @@
+package com.example.back.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity class for Order.
+ * This class represents a checked-out cart: its lines are a snapshot of the cart and of the product
+ * prices at checkout time. The user is stored as a plain column so that writing an order never loads the user.
+ * The order number is also the payment and merchant reference sent to the payment provider, so it is not
+ * stored twice; the reference of the provider is the charge ID.
+ * The entity name differs from the class name because ORDER is a reserved word in JPQL.
+ */
+@Entity(name = "CustomerOrder")
+@Table(name = "orders", indexes = {
+        @Index(name = "uk_orders_order_number", columnList = "order_number", unique = true),
+        @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_charge_id", columnList = "charge_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Order {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_number", nullable = false, length = 40)
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    /**
+     * Identifier of the charge at the payment provider, once created.
+     */
+    @Column(name = "charge_id", length = 100)
+    private String chargeId;
+
+    @Column(name = "checkout_url", length = 500)
+    private String checkoutUrl;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.PERSIST)
+    @OrderBy("id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<OrderLine> lines = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    @Column(name = "updated_at")
+    private Long updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now().toEpochMilli();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now().toEpochMilli();
+    }
+
+    /**
+     * Add a line to the order.
+     *
+     * @param line the order line
+     */
+    public void addLine(OrderLine line) {
+        line.setOrder(this);
+        lines.add(line);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.back.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Entity class for OrderLine.
+ * This class represents one product of an order, with the product code, name and price copied at checkout
+ * so that the order is not affected by later product changes.
+ */
+@Entity
+@Table(name = "order_lines", indexes = {
+        @Index(name = "idx_order_lines_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_seq")
+    @SequenceGenerator(name = "order_line_seq", sequenceName = "order_line_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Order order;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_code", length = 50)
+    private String productCode;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "unit_price", nullable = false)
+    private Double unitPrice;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "line_total", nullable = false)
+    private Double lineTotal;
+}
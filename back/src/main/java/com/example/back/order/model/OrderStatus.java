@@ -0,0 +1,11 @@
+package com.example.back.order.model;
+
+/**
+ * Status of an order.
+ */
+public enum OrderStatus {
+    PENDING_PAYMENT,
+    PAYMENT_FAILED,
+    PAID,
+    CANCELLED
+}
@@ -0,0 +1,53 @@
+package com.example.back.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Entity class for OrderStatusHistory.
+ * This class represents one status change of an order. Rows are only ever inserted.
+ */
+@Entity
+@Immutable
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "idx_order_status_history_order_id", columnList = "order_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_history_seq")
+    @SequenceGenerator(name = "order_status_history_seq", sequenceName = "order_status_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(length = 500)
+    private String note;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    public OrderStatusHistory(Long orderId, OrderStatus status, String note) {
+        this.orderId = orderId;
+        this.status = status;
+        this.note = note;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now().toEpochMilli();
+    }
+}
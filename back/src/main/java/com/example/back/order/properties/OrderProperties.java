@@ -0,0 +1,18 @@
+package com.example.back.order.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "order")
+@Configuration
+@Data
+public class OrderProperties {
+    private String numberPrefix;
+    private int nodeId;
+    private int pageDefaultSize;
+    private int pageMaxSize;
+    private String pageSizeError;
+    private String invalidCursorError;
+    private String statusTransitionError;
+}
@@ -0,0 +1,175 @@
+package com.example.back.order.repository;
+
+import com.example.back.order.dto.projection.OrderSummaryDTO;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for Order entity.
+ * Every lookup is served by an index: (user_id, created_at, id) for the history of a user,
+ * and one index per order number and charge ID.
+ */
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Find one page of a user's orders, most recent first, using keyset pagination.
+     * The cost of a page does not depend on how many orders come before it.
+     *
+     * @param userId the user ID
+     * @param afterCreatedAt the createdAt of the last order of the previous page, or null for the first page
+     * @param afterId the id of the last order of the previous page, or null for the first page
+     * @param pageable the page limit (the page number must always be 0)
+     * @return the orders of the page
+     */
+    @Query("""
+            SELECT new com.example.back.order.dto.projection.OrderSummaryDTO(
+                o.id, o.orderNumber, o.status, o.currency, o.totalAmount, o.itemCount, o.createdAt)
+            FROM CustomerOrder o
+            WHERE o.userId = :userId
+              AND (:afterCreatedAt IS NULL
+                   OR o.createdAt < :afterCreatedAt
+                   OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryDTO> findPageByUserId(@Param("userId") Long userId,
+                                           @Param("afterCreatedAt") Long afterCreatedAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /**
+     * Find a user's order by its number, fetching its lines in the same query.
+     *
+     * @param orderNumber the order number
+     * @param userId the user ID
+     * @return an Optional containing the order if found, or empty if not found
+     */
+    @Query("""
+            SELECT DISTINCT o FROM CustomerOrder o
+            LEFT JOIN FETCH o.lines
+            WHERE o.orderNumber = :orderNumber AND o.userId = :userId
+            """)
+    Optional<Order> findWithLinesByOrderNumberAndUserId(@Param("orderNumber") String orderNumber,
+                                                        @Param("userId") Long userId);
+
+    /**
+     * Find an order by its number, whatever its user, fetching its lines in the same query.
+     *
+     * @param orderNumber the order number
+     * @return an Optional containing the order if found, or empty if not found
+     */
+    @Query("""
+            SELECT DISTINCT o FROM CustomerOrder o
+            LEFT JOIN FETCH o.lines
+            WHERE o.orderNumber = :orderNumber
+            """)
+    Optional<Order> findWithLinesByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    /**
+     * Find a user's orders by payment reference, fetching their lines in the same query.
+     * The payment and merchant references sent to the provider are the order number, and the reference
+     * returned by the provider is the charge ID.
+     *
+     * @param reference the order number or the charge ID
+     * @param userId the user ID
+     * @return the matching orders
+     */
+    @Query("""
+            SELECT DISTINCT o FROM CustomerOrder o
+            LEFT JOIN FETCH o.lines
+            WHERE (o.orderNumber = :reference OR o.chargeId = :reference)
+              AND o.userId = :userId
+            """)
+    List<Order> findWithLinesByReferenceAndUserId(@Param("reference") String reference,
+                                                  @Param("userId") Long userId);
+
+    /**
+     * Find the highest order numbers starting with a prefix, in numeric order of their base 36 suffix:
+     * longer numbers first, then numbers of the same length in reverse alphabetical order.
+     *
+     * @param prefix the order number prefix
+     * @param pageable the number of order numbers to return
+     * @return the highest order numbers
+     */
+    @Query("""
+            SELECT o.orderNumber FROM CustomerOrder o
+            WHERE o.orderNumber LIKE CONCAT(:prefix, '%')
+            ORDER BY LENGTH(o.orderNumber) DESC, o.orderNumber DESC
+            """)
+    List<String> findHighestOrderNumbers(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * Find the ID of a user's order by its number.
+     *
+     * @param orderNumber the order number
+     * @param userId the user ID
+     * @return an Optional containing the order ID if found, or empty if not found
+     */
+    @Query("SELECT o.id FROM CustomerOrder o WHERE o.orderNumber = :orderNumber AND o.userId = :userId")
+    Optional<Long> findIdByOrderNumberAndUserId(@Param("orderNumber") String orderNumber,
+                                                @Param("userId") Long userId);
+
+    /**
+     * Tell whether a user has an order created since a given time that is awaiting payment
+     * and has no charge recorded yet, meaning its payment is still being created or its outcome is unknown.
+     *
+     * @param userId the user ID
+     * @param since the creation time from which orders are considered
+     * @return true if such an order exists
+     */
+    @Query("""
+            SELECT COUNT(o) > 0 FROM CustomerOrder o
+            WHERE o.userId = :userId
+              AND o.createdAt >= :since
+              AND o.status = com.example.back.order.model.OrderStatus.PENDING_PAYMENT
+              AND o.chargeId IS NULL
+            """)
+    boolean existsCheckoutInProgress(@Param("userId") Long userId, @Param("since") Long since);
+
+    /**
+     * Move an order to a new status, only if it is still in the expected status.
+     *
+     * @param id the order ID
+     * @param expected the current status
+     * @param status the new status
+     * @param updatedAt the update timestamp
+     * @return 1 if the order was updated, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            UPDATE CustomerOrder o SET o.status = :status, o.updatedAt = :updatedAt
+            WHERE o.id = :id AND o.status = :expected
+            """)
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") OrderStatus expected,
+                     @Param("status") OrderStatus status,
+                     @Param("updatedAt") Long updatedAt);
+
+    /**
+     * Record the charge created at the payment provider for an order.
+     *
+     * @param id the order ID
+     * @param chargeId the charge ID at the payment provider
+     * @param checkoutUrl the checkout URL of the charge
+     * @param updatedAt the update timestamp
+     * @return 1 if the order was updated, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            UPDATE CustomerOrder o SET o.chargeId = :chargeId, o.checkoutUrl = :checkoutUrl, o.updatedAt = :updatedAt
+            WHERE o.id = :id
+            """)
+    int recordCharge(@Param("id") Long id,
+                     @Param("chargeId") String chargeId,
+                     @Param("checkoutUrl") String checkoutUrl,
+                     @Param("updatedAt") Long updatedAt);
+}
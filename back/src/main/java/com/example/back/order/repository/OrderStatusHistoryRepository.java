@@ -0,0 +1,22 @@
+package com.example.back.order.repository;
+
+import com.example.back.order.model.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OrderStatusHistory entity.
+ */
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    /**
+     * Find the status changes of an order, oldest first.
+     *
+     * @param orderId the order ID
+     * @return the status changes
+     */
+    List<OrderStatusHistory> findByOrderIdOrderByIdAsc(Long orderId);
+}
@@ -0,0 +1,268 @@
+package com.example.back.order.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.service.UserService;
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.order.dto.projection.OrderSummaryDTO;
+import com.example.back.order.dto.response.OrderPageResponseDTO;
+import com.example.back.order.dto.response.OrderResponseDTO;
+import com.example.back.order.dto.response.OrderStatusHistoryResponseDTO;
+import com.example.back.order.mapper.OrderMapper;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderLine;
+import com.example.back.order.model.OrderStatus;
+import com.example.back.order.model.OrderStatusHistory;
+import com.example.back.order.properties.OrderProperties;
+import com.example.back.order.repository.OrderRepository;
+import com.example.back.order.repository.OrderStatusHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service class for order management.
+ * Orders are written once at checkout with their lines, then only their status and payment columns change
+ * through conditional updates. Every status change is appended to the status history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderService {
+
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository historyRepository;
+    private final OrderMapper orderMapper;
+    private final UserService userService;
+    private final OrderProperties properties;
+    private final SequenceOrderNumberGenerator orderNumberGenerator;
+
+    /**
+     * Generate a new order number.
+     * Numbers are unique across instances and increase with time, so that they are inserted in order in their index.
+     *
+     * @return the order number
+     */
+    public String nextOrderNumber() {
+        return orderNumberGenerator.nextOrderNumber();
+    }
+
+    /**
+     * Create an order awaiting payment.
+     * The order and its lines are inserted in JDBC batches, with ids taken from pooled sequences.
+     *
+     * @param userId the user ID
+     * @param orderNumber the order number, also sent as payment and merchant reference
+     * @param currency the currency
+     * @param lines the order lines, with product, unit price and quantity set
+     * @return the created order
+     */
+    @Transactional
+    public Order createPendingOrder(Long userId, String orderNumber, String currency, List<OrderLine> lines) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setUserId(userId);
+        order.setStatus(OrderStatus.PENDING_PAYMENT);
+        order.setCurrency(currency);
+
+        BigDecimal total = BigDecimal.ZERO;
+        int itemCount = 0;
+        for (OrderLine line : lines) {
+            BigDecimal lineTotal = BigDecimal.valueOf(line.getUnitPrice()).multiply(BigDecimal.valueOf(line.getQuantity()));
+            line.setLineTotal(lineTotal.doubleValue());
+            total = total.add(lineTotal);
+            itemCount += line.getQuantity();
+            order.addLine(line);
+        }
+        order.setTotalAmount(total.doubleValue());
+        order.setItemCount(itemCount);
+
+        Order savedOrder = orderRepository.save(order);
+        historyRepository.save(new OrderStatusHistory(savedOrder.getId(), OrderStatus.PENDING_PAYMENT, null));
+        log.debug("Created order {} with {} lines for user {}", orderNumber, lines.size(), userId);
+        return savedOrder;
+    }
+
+    /**
+     * Tell whether a user has a checkout in progress: an order created since the given time that is
+     * awaiting payment without a recorded charge.
+     *
+     * @param userId the user ID
+     * @param since the creation time from which orders are considered
+     * @return true if a checkout is in progress
+     */
+    @Transactional(readOnly = true)
+    public boolean hasCheckoutInProgress(Long userId, long since) {
+        return orderRepository.existsCheckoutInProgress(userId, since);
+    }
+
+    /**
+     * Find an order by its number, whatever its user, with its lines.
+     * Used for the notifications of the payment provider, where the order number is the merchant reference.
+     *
+     * @param orderNumber the order number
+     * @return an Optional containing the order if found, or empty if not found
+     */
+    @Transactional(readOnly = true)
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        return orderRepository.findWithLinesByOrderNumber(orderNumber);
+    }
+
+    /**
+     * Record the charge created at the payment provider for an order.
+     *
+     * @param orderId the order ID
+     * @param chargeId the charge ID at the payment provider
+     * @param checkoutUrl the checkout URL of the charge
+     */
+    @Transactional
+    public void recordCharge(Long orderId, String chargeId, String checkoutUrl) {
+        orderRepository.recordCharge(orderId, chargeId, checkoutUrl, Instant.now().toEpochMilli());
+    }
+
+    /**
+     * Move an order from an expected status to a new one and append the change to its history.
+     *
+     * @param orderId the order ID
+     * @param expected the current status
+     * @param status the new status
+     * @param note an optional note, such as the failure reason
+     * @throws ValidationException if the order is no longer in the expected status
+     */
+    @Transactional
+    public void changeStatus(Long orderId, OrderStatus expected, OrderStatus status, String note) {
+        if (orderRepository.updateStatus(orderId, expected, status, Instant.now().toEpochMilli()) == 0) {
+            throw new ValidationException(String.format(properties.getStatusTransitionError(), orderId, expected, status));
+        }
+        historyRepository.save(new OrderStatusHistory(orderId, status, note));
+        log.debug("Order {} moved from {} to {}", orderId, expected, status);
+    }
+
+    /**
+     * Get one page of the current user's orders, most recent first.
+     *
+     * @param after the cursor returned by the previous page, or null for the first page
+     * @param size the page size, or null for the default size
+     * @return the page of orders with the cursor of the next page
+     * @throws ValidationException if the page size or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponseDTO getCurrentUserOrders(String after, Integer size) {
+        User user = getCurrentUser();
+        int pageSize = resolvePageSize(size);
+        long[] cursor = decodeCursor(after);
+
+        // Fetch one extra row to know whether a next page exists
+        List<OrderSummaryDTO> orders = orderRepository.findPageByUserId(user.getId(),
+                cursor == null ? null : cursor[0],
+                cursor == null ? null : cursor[1],
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = orders.size() > pageSize;
+        List<OrderSummaryDTO> page = hasNext ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return new OrderPageResponseDTO(page, page.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Get one of the current user's orders with its lines.
+     *
+     * @param orderNumber the order number
+     * @return the order
+     * @throws ResourceNotFoundException if the order is not found
+     */
+    @Transactional(readOnly = true)
+    public OrderResponseDTO getCurrentUserOrder(String orderNumber) {
+        User user = getCurrentUser();
+        return orderRepository.findWithLinesByOrderNumberAndUserId(orderNumber, user.getId())
+                .map(orderMapper::toResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "number", orderNumber));
+    }
+
+    /**
+     * Get the current user's orders by payment reference.
+     *
+     * @param reference the order number sent as payment reference, or the charge ID
+     * @return the matching orders
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponseDTO> getCurrentUserOrdersByReference(String reference) {
+        User user = getCurrentUser();
+        return orderRepository.findWithLinesByReferenceAndUserId(reference, user.getId()).stream()
+                .map(orderMapper::toResponseDTO)
+                .toList();
+    }
+
+    /**
+     * Get the status history of one of the current user's orders.
+     *
+     * @param orderNumber the order number
+     * @return the status changes, oldest first
+     * @throws ResourceNotFoundException if the order is not found
+     */
+    @Transactional(readOnly = true)
+    public List<OrderStatusHistoryResponseDTO> getCurrentUserOrderHistory(String orderNumber) {
+        User user = getCurrentUser();
+        Long orderId = orderRepository.findIdByOrderNumberAndUserId(orderNumber, user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "number", orderNumber));
+        return orderMapper.toHistoryResponseDTOList(historyRepository.findByOrderIdOrderByIdAsc(orderId));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return properties.getPageDefaultSize();
+        }
+
+        if (size < 1 || size > properties.getPageMaxSize()) {
+            log.warn("Invalid page size: {}", size);
+            throw new ValidationException(String.format(properties.getPageSizeError(), properties.getPageMaxSize()));
+        }
+        return size;
+    }
+
+    private String encodeCursor(OrderSummaryDTO order) {
+        String position = order.getCreatedAt() + CURSOR_SEPARATOR + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = position.indexOf(CURSOR_SEPARATOR);
+            return new long[]{
+                    Long.parseLong(position.substring(0, separatorIndex)),
+                    Long.parseLong(position.substring(separatorIndex + 1))
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.warn("Invalid pagination cursor: {}", cursor);
+            throw new ValidationException(properties.getInvalidCursorError());
+        }
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new ResourceNotFoundException("User", "authentication", "null");
+        }
+        return userService.findUserByAuthentication(authentication)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", authentication.getName()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.back.order.service;
+
+import com.example.back.common.util.SequenceCodeGenerator;
+import com.example.back.order.properties.OrderProperties;
+import com.example.back.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order number generator, using the same scheme as product codes: a timestamp, the node ID of the instance
+ * and a sequence, as described in {@link SequenceCodeGenerator}. Numbers are unique without any database
+ * query, and increasing so that they are inserted in order in their index.
+ * On startup the generator resumes after the highest order number already stored.
+ */
+@Component
+@Slf4j
+public class SequenceOrderNumberGenerator {
+
+    private static final int SEED_CANDIDATES = 20;
+
+    private final SequenceCodeGenerator numbers;
+
+    public SequenceOrderNumberGenerator(OrderProperties properties, OrderRepository orderRepository) {
+        this.numbers = new SequenceCodeGenerator("Order number", properties.getNumberPrefix(), properties.getNodeId(),
+                System::currentTimeMillis);
+        String resumedAfter = numbers.seed(orderRepository.findHighestOrderNumbers(properties.getNumberPrefix(),
+                PageRequest.of(0, SEED_CANDIDATES)));
+        if (resumedAfter != null) {
+            log.info("Order numbers resume after {}", resumedAfter);
+        }
+    }
+
+    /**
+     * Generate the number of a new order.
+     *
+     * @return a unique order number
+     */
+    public String nextOrderNumber() {
+        return numbers.next();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.back.payments.bictorys.config;
+
+import com.example.back.common.exception.PaymentUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent calls to the payment provider.
+ * A call that cannot get a permit within the maximum wait fails fast instead of queuing a request thread
+ * behind a slow provider. The rejected call never reached the provider and is reported as unavailable (503). Saturation is exposed through the "bictorys.http.bulkhead.*" metrics.
+ */
+@Slf4j
+public class BictorysBulkheadInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String METRIC_PREFIX = "bictorys.http.bulkhead.";
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final String fullError;
+    private final Counter rejected;
+
+    public BictorysBulkheadInterceptor(int maxConcurrentCalls, Duration maxWait, String fullError,
+                                       MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.fullError = fullError;
+        Gauge.builder(METRIC_PREFIX + "active", permits, semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+                .description("Calls to the payment provider in flight")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "available", permits, Semaphore::availablePermits)
+                .description("Calls to the payment provider that can still start")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "waiting", permits, Semaphore::getQueueLength)
+                .description("Calls waiting for a permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Calls rejected because the bulkhead was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        acquire();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        log.warn("Payment provider bulkhead is full, rejecting the call");
+        throw new PaymentUnavailableException(fullError);
+    }
+}
@@ -1,14 +1,29 @@
 package com.example.back.payments.bictorys.controller;
+import com.example.back.common.exception.IdempotencyKeyReuseException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.common.exception.ValidationException;
 import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.request.BictorysWebhookRequestDTO;
 import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.dto.response.AsyncCheckoutResponseDTO;
+import com.example.back.payments.bictorys.properties.BictorysPaymentProviderProperties;
+import com.example.back.payments.bictorys.service.AsyncCheckoutService;
 import com.example.back.payments.bictorys.service.BictorysPaymentService;
+import com.example.back.payments.bictorys.service.BictorysWebhookService;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyService;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyService.IdempotentResult;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
 
 @Slf4j
 @RestController
@@ -17,25 +32,100 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class BictorysPaymentController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final BictorysPaymentService paymentService;
+    private final CheckoutIdempotencyService idempotencyService;
+    private final AsyncCheckoutService asyncCheckoutService;
+    private final BictorysWebhookService webhookService;
+    private final BictorysPaymentProviderProperties providerProperties;
 
     /**
      * Endpoint pour créer un paiement checkout
      * POST /api/payments/checkout
+     * Avec un header Idempotency-Key, un même paiement n'est créé qu'une fois :
+     * les requêtes répétées reçoivent la réponse d'origine avec le header Idempotent-Replayed.
      */
     @PostMapping("/checkout")
     public ResponseEntity<BictorysPaymentResponseDTO> createCheckout(
-            @Valid @RequestBody BictorysPaymentRequestDTO request) {
+            @Valid @RequestBody BictorysPaymentRequestDTO request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("Création d'un paiement checkout pour le montant: {} {}",
                 request.getAmount(), request.getCurrency());
 
         try {
-            BictorysPaymentResponseDTO response = paymentService.createCheckoutPayment(request);
-            return ResponseEntity.ok(response);
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(paymentService.createCheckoutPayment(request));
+            }
+            IdempotentResult result = idempotencyService.execute(idempotencyKey, request,
+                    () -> paymentService.createCheckoutPayment(request));
+            return ResponseEntity.ok()
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                    .body(result.getResponse());
+        } catch (PaymentUnavailableException | ValidationException | IdempotencyKeyReuseException e) {
+            // Traitées par le GlobalExceptionHandler (503, 400, 422)
+            throw e;
         } catch (Exception e) {
             log.error("Erreur lors de la création du paiement", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint pour créer un paiement checkout de manière asynchrone
+     * POST /api/payments/checkout/async
+     * Le paiement est mis en file d'attente et la réponse 202 contient l'identifiant du checkout,
+     * à suivre avec GET /api/payments/checkout/{id} ou GET /api/payments/checkout/{id}/events.
+     * Répond 503 si la file d'attente est pleine.
+     */
+    @PostMapping("/checkout/async")
+    public ResponseEntity<AsyncCheckoutResponseDTO> createCheckoutAsync(
+            @Valid @RequestBody BictorysPaymentRequestDTO request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        log.info("Mise en file d'un paiement checkout pour le montant: {} {}",
+                request.getAmount(), request.getCurrency());
+
+        AsyncCheckoutResponseDTO checkout = asyncCheckoutService.submit(request, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/checkout/" + checkout.getCheckoutId()))
+                .body(checkout);
+    }
+
+    /**
+     * Endpoint pour consulter l'état d'un paiement checkout asynchrone
+     * GET /api/payments/checkout/{id}
+     */
+    @GetMapping("/checkout/{id}")
+    public ResponseEntity<AsyncCheckoutResponseDTO> getCheckout(@PathVariable String id) {
+        log.debug("REST request to get checkout: {}", id);
+        return ResponseEntity.ok(asyncCheckoutService.getCheckout(id));
+    }
+
+    /**
+     * Endpoint pour suivre un paiement checkout asynchrone en Server-Sent Events
+     * GET /api/payments/checkout/{id}/events
+     * Un événement "checkout" est envoyé à chaque changement d'état, jusqu'à COMPLETED ou FAILED.
+     */
+    @GetMapping(value = "/checkout/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followCheckout(@PathVariable String id) {
+        log.debug("REST request to follow checkout: {}", id);
+        return asyncCheckoutService.subscribe(id);
+    }
+
+    /**
+     * Endpoint recevant les notifications de statut de paiement de Bictorys
+     * POST /api/payments/webhook
+     * Authentifié par le secret partagé du header configuré (401 sinon). Un paiement réussi confirme le stock
+     * réservé de la commande et la passe à PAID, un paiement échoué libère le stock et la passe à PAYMENT_FAILED.
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> receiveWebhook(@Valid @RequestBody BictorysWebhookRequestDTO notification,
+                                               @RequestHeader HttpHeaders headers) {
+        log.debug("Notification de paiement reçue pour la charge {}", notification.getId());
+        webhookService.handle(headers.getFirst(providerProperties.getWebhookSecretHeader()), notification);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.back.payments.bictorys.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO des notifications de statut de paiement envoyées par Bictorys
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BictorysWebhookRequestDTO {
+
+    /**
+     * Identifiant de la charge
+     * Exemple: "charge_abc123xyz789"
+     */
+    @NotBlank(message = "L'identifiant de la charge est obligatoire")
+    private String id;
+
+    /**
+     * Statut de la charge
+     * Valeurs possibles: "pending", "success", "failed", "cancelled"
+     */
+    @NotBlank(message = "Le statut est obligatoire")
+    private String status;
+
+    /**
+     * Référence de paiement envoyée à la création de la charge
+     */
+    private String paymentReference;
+
+    /**
+     * Référence marchand envoyée à la création de la charge
+     */
+    private String merchantReference;
+}
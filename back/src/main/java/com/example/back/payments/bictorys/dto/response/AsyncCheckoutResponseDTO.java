@@ -0,0 +1,48 @@
+package com.example.back.payments.bictorys.dto.response;
+
+import com.example.back.payments.bictorys.model.CheckoutStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour l'état d'un paiement checkout asynchrone
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AsyncCheckoutResponseDTO {
+
+    /**
+     * Identifiant du checkout asynchrone, à utiliser pour suivre son état
+     */
+    private String checkoutId;
+
+    /**
+     * État du checkout
+     */
+    private CheckoutStatus status;
+
+    /**
+     * URL de redirection vers la page de checkout Bictorys, une fois le paiement créé
+     */
+    private String checkoutUrl;
+
+    /**
+     * Réponse de l'API Bictorys, une fois le paiement créé
+     */
+    private BictorysPaymentResponseDTO payment;
+
+    /**
+     * Message d'erreur si le paiement n'a pas pu être créé
+     */
+    private String error;
+
+    private Long createdAt;
+
+    private Long updatedAt;
+}
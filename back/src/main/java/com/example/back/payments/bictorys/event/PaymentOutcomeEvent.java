@@ -0,0 +1,30 @@
+package com.example.back.payments.bictorys.event;
+
+import lombok.Value;
+
+/**
+ * Application event published when the payment provider reports the final outcome of a charge.
+ */
+@Value
+public class PaymentOutcomeEvent {
+
+    /**
+     * Identifier of the charge at the payment provider.
+     */
+    String chargeId;
+
+    /**
+     * The merchant reference sent with the charge, the order number for cart checkouts.
+     */
+    String merchantReference;
+
+    /**
+     * True if the charge was paid, false if it failed or was cancelled.
+     */
+    boolean paid;
+
+    /**
+     * The status reported by the provider.
+     */
+    String status;
+}
@@ -0,0 +1,74 @@
+package com.example.back.payments.bictorys.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Entity class for CheckoutIdempotencyRecord.
+ * This class represents the outcome of a checkout stored under the idempotency key sent by the client,
+ * so that a retried request replays it instead of creating another charge.
+ * A key is claimed with a pending record, without response, before the provider is called, and the response is
+ * stored in it once known. Saving a new record always inserts it, so a key already claimed by another request
+ * fails on the primary key instead of overwriting it.
+ */
+@Entity
+@Table(name = "checkout_idempotency_keys", indexes = {
+        @Index(name = "idx_checkout_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class CheckoutIdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the request body, to detect a key reused with another request.
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /**
+     * Null while the checkout is pending.
+     */
+    @Lob
+    @Column(name = "response_json")
+    private String responseJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    @Transient
+    private boolean newRecord = true;
+
+    public CheckoutIdempotencyRecord(String idempotencyKey, String fingerprint, String responseJson,
+                                     Long createdAt, Long expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.responseJson = responseJson;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRecord = false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.back.payments.bictorys.model;
+
+/**
+ * Status of an asynchronous checkout.
+ */
+public enum CheckoutStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
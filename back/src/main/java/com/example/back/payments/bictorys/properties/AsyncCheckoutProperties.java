@@ -0,0 +1,23 @@
+package com.example.back.payments.bictorys.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "async-checkout")
+@Configuration
+@Data
+public class AsyncCheckoutProperties {
+    private int workers;
+    private int queueCapacity;
+    private Duration resultTtl;
+    private long maximumResults;
+    private Duration sseTimeout;
+    private String queueFullError;
+    private String unavailableError;
+    private String paymentError;
+    private String keyReusedError;
+    private String unexpectedError;
+}
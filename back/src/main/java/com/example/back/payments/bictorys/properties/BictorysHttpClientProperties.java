@@ -0,0 +1,18 @@
+package com.example.back.payments.bictorys.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bictorys-http-client")
+@Configuration
+@Data
+public class BictorysHttpClientProperties {
+    private Duration connectTimeout;
+    private Duration readTimeout;
+    private int maxConcurrentCalls;
+    private Duration bulkheadMaxWait;
+    private String bulkheadFullError;
+}
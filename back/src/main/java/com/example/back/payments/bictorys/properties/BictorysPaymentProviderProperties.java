@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @ConfigurationProperties(prefix = "bictorys-payment-provider")
 @Configuration
 @Data
@@ -11,4 +13,8 @@ public class BictorysPaymentProviderProperties {
     private String apiUrl;
     private String publicApiKey;
     private String publicApiValue;
+    private String webhookSecretHeader;
+    private String webhookSecret;
+    private List<String> paidStatuses;
+    private List<String> failedStatuses;
 }
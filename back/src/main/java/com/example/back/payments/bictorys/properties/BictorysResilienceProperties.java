@@ -0,0 +1,21 @@
+package com.example.back.payments.bictorys.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bictorys-resilience")
+@Configuration
+@Data
+public class BictorysResilienceProperties {
+    private int failureThreshold;
+    private Duration openDuration;
+    private int halfOpenMaxCalls;
+    private int maxAttempts;
+    private Duration initialBackoff;
+    private Duration maxBackoff;
+    private double backoffMultiplier;
+    private String circuitOpenError;
+}
@@ -0,0 +1,22 @@
+package com.example.back.payments.bictorys.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "checkout-idempotency")
+@Configuration
+@Data
+public class CheckoutIdempotencyProperties {
+    private String store;
+    private Duration ttl;
+    private Duration pendingTimeout;
+    private Duration pendingPollInterval;
+    private long maximumSize;
+    private int maxKeyLength;
+    private Duration purgeInterval;
+    private String keyInvalidError;
+    private String keyReusedError;
+}
@@ -0,0 +1,86 @@
+package com.example.back.payments.bictorys.repository;
+
+import com.example.back.payments.bictorys.model.CheckoutIdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for CheckoutIdempotencyRecord entity.
+ */
+@Repository
+public interface CheckoutIdempotencyRepository extends JpaRepository<CheckoutIdempotencyRecord, String> {
+
+    /**
+     * Find the record stored under a key, if it has not expired.
+     *
+     * @param idempotencyKey the idempotency key
+     * @param now the current timestamp
+     * @return the record, if any
+     */
+    @Query("""
+            SELECT r FROM CheckoutIdempotencyRecord r
+            WHERE r.idempotencyKey = :idempotencyKey AND r.expiresAt > :now
+            """)
+    Optional<CheckoutIdempotencyRecord> findActive(@Param("idempotencyKey") String idempotencyKey,
+                                                   @Param("now") Long now);
+
+    /**
+     * Delete the expired records.
+     *
+     * @param now the current timestamp
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM CheckoutIdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+
+    /**
+     * Delete the record stored under a key, if it has expired.
+     *
+     * @param idempotencyKey the idempotency key
+     * @param now the current timestamp
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM CheckoutIdempotencyRecord r
+            WHERE r.idempotencyKey = :idempotencyKey AND r.expiresAt <= :now
+            """)
+    int deleteExpiredKey(@Param("idempotencyKey") String idempotencyKey, @Param("now") Long now);
+
+    /**
+     * Store the outcome of a checkout in the pending record claimed for it, if it has not expired.
+     *
+     * @param idempotencyKey the idempotency key
+     * @param fingerprint the fingerprint of the request that claimed the key
+     * @param responseJson the checkout response
+     * @param expiresAt the expiry of the completed record
+     * @param now the current timestamp
+     * @return the number of updated records
+     */
+    @Modifying
+    @Query("""
+            UPDATE CheckoutIdempotencyRecord r
+            SET r.responseJson = :responseJson, r.expiresAt = :expiresAt
+            WHERE r.idempotencyKey = :idempotencyKey AND r.fingerprint = :fingerprint
+            AND r.responseJson IS NULL AND r.expiresAt > :now
+            """)
+    int complete(@Param("idempotencyKey") String idempotencyKey, @Param("fingerprint") String fingerprint,
+                 @Param("responseJson") String responseJson, @Param("expiresAt") Long expiresAt,
+                 @Param("now") Long now);
+
+    /**
+     * Delete the pending record claimed under a key.
+     *
+     * @param idempotencyKey the idempotency key
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM CheckoutIdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.responseJson IS NULL")
+    int deletePending(@Param("idempotencyKey") String idempotencyKey);
+}
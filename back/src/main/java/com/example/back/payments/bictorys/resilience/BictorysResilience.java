@@ -0,0 +1,140 @@
+package com.example.back.payments.bictorys.resilience;
+
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.payments.bictorys.properties.BictorysResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Resilience policy of the calls to the Bictorys API.
+ * Calls go through a circuit breaker, which fails fast while the provider is down, and are retried
+ * with jittered exponential backoff when the failure guarantees the charge was not created:
+ * the connection could not be established, or the provider answered 429 or 503.
+ * Other failures are not retried, since a charge request is not idempotent.
+ */
+@Component
+@Slf4j
+public class BictorysResilience {
+
+    private static final String METRIC_PREFIX = "bictorys.circuit.";
+
+    private final BictorysResilienceProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryPolicy retryPolicy;
+    private final Counter rejected;
+    private final Counter retries;
+
+    public BictorysResilience(BictorysResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreaker = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration(),
+                properties.getHalfOpenMaxCalls());
+        this.retryPolicy = new RetryPolicy(properties.getMaxAttempts(), properties.getInitialBackoff(),
+                properties.getMaxBackoff(), properties.getBackoffMultiplier());
+        Gauge.builder(METRIC_PREFIX + "state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the payment provider circuit: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Calls rejected because the circuit was open")
+                .register(meterRegistry);
+        this.retries = Counter.builder("bictorys.retries")
+                .description("Calls to the payment provider retried after a failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a call to the provider under the circuit breaker and the retry policy.
+     *
+     * @param call the call to the provider
+     * @param <T> the type of the result
+     * @return the result of the call
+     * @throws PaymentUnavailableException if the circuit is open
+     */
+    public <T> T execute(Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejected.increment();
+                throw new PaymentUnavailableException(properties.getCircuitOpenError());
+            }
+            try {
+                T result = call.get();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (isProviderFailure(e)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                if (!isRetryable(e) || !retryPolicy.canRetry(attempt)) {
+                    throw e;
+                }
+                Duration backoff = retryPolicy.backoff(attempt);
+                log.warn("Payment provider call failed ({}), retrying in {} ms", e.getMessage(), backoff.toMillis());
+                retries.increment();
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private static boolean isProviderFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException statusException) {
+            return statusException.getStatusCode().is5xxServerError()
+                    || statusException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return false;
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof HttpStatusCodeException statusException) {
+            return statusException.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                    || statusException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        // Only a failed connection guarantees the request never reached the provider
+        return isConnectFailure(e);
+    }
+
+    /**
+     * Tell whether a call failed before a connection to the provider was established,
+     * in which case the provider never received the request.
+     *
+     * @param e the failure of the call
+     * @return true if the connection failed or timed out
+     */
+    public static boolean isConnectFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(Duration backoff, RuntimeException failure) {
+        try {
+            Thread.sleep(backoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
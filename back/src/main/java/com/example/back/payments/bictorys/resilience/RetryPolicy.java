@@ -0,0 +1,43 @@
+package com.example.back.payments.bictorys.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retries with exponential backoff and jitter.
+ * The delay before retry n is drawn between half and all of {@code initialBackoff * multiplier^(n-1)},
+ * capped at {@code maxBackoff}, so that clients failing together do not retry together.
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double multiplier) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * @param attempt the number of attempts already made, starting at 1
+     * @return true if another attempt is allowed
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * @param attempt the number of attempts already made, starting at 1
+     * @return the delay to wait before the next attempt
+     */
+    public Duration backoff(int attempt) {
+        double exponential = initialBackoffNanos * Math.pow(multiplier, attempt - 1);
+        long ceiling = (long) Math.min(maxBackoffNanos, exponential);
+        long half = ceiling / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(ceiling - half + 1));
+    }
+}
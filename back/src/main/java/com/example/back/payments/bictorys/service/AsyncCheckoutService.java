@@ -0,0 +1,306 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.common.exception.IdempotencyKeyReuseException;
+import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.AsyncCheckoutResponseDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.model.CheckoutStatus;
+import com.example.back.payments.bictorys.properties.AsyncCheckoutProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs checkouts in the background so that request threads are never held by the provider latency.
+ * Checkouts are queued in a bounded queue and processed by a fixed pool of workers. When the queue is full,
+ * new checkouts are rejected right away. The state of each checkout is kept for a limited time and can be
+ * polled or followed through server-sent events.
+ * Pending and processing checkouts are never evicted; the size bound and the time to live only apply once
+ * a checkout has completed or failed. Events are sent from the application task executor, in order for each
+ * checkout, so a slow subscriber never holds a worker or the checkout lock.
+ * A failed checkout exposes a fixed message per failure type, the cause is only logged.
+ * Queue depth and worker usage are exposed under the "bictorys.checkout" executor metrics.
+ */
+@Service
+@Slf4j
+public class AsyncCheckoutService {
+
+    private static final String EXECUTOR_NAME = "bictorys.checkout";
+    private static final String EVENT_NAME = "checkout";
+
+    private final AsyncCheckoutProperties properties;
+    private final BictorysPaymentService paymentService;
+    private final CheckoutIdempotencyService idempotencyService;
+    private final TaskExecutor eventExecutor;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, CheckoutJob> jobs;
+
+    public AsyncCheckoutService(AsyncCheckoutProperties properties, BictorysPaymentService paymentService,
+                                CheckoutIdempotencyService idempotencyService,
+                                @Qualifier("applicationTaskExecutor") TaskExecutor eventExecutor,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
+        this.eventExecutor = eventExecutor;
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("checkout-worker-"), new ThreadPoolExecutor.AbortPolicy());
+        // Unfinished checkouts weigh nothing and never expire, so only finished ones count towards the bounds.
+        // A checkout is put again when it finishes, which weighs it and starts its time to live.
+        this.jobs = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumResults())
+                .weigher((String id, CheckoutJob job) -> job.status.isTerminal() ? 1 : 0)
+                .expireAfter(new Expiry<String, CheckoutJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, CheckoutJob job, long currentTime) {
+                        return job.status.isTerminal() ? properties.getResultTtl().toNanos() : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, CheckoutJob job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, CheckoutJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+        Gauge.builder(EXECUTOR_NAME + ".utilization", executor,
+                        pool -> (double) pool.getActiveCount() / pool.getMaximumPoolSize())
+                .description("Share of checkout workers busy calling the provider")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a checkout.
+     *
+     * @param request the checkout request
+     * @param idempotencyKey the idempotency key sent by the client, or null
+     * @return the state of the queued checkout
+     * @throws ValidationException if the idempotency key is blank or too long
+     * @throws PaymentUnavailableException if the queue is full
+     */
+    public AsyncCheckoutResponseDTO submit(BictorysPaymentRequestDTO request, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            idempotencyService.validateKey(idempotencyKey);
+        }
+
+        CheckoutJob job = new CheckoutJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> process(job, request, idempotencyKey));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            log.warn("Checkout queue is full ({} queued), rejecting checkout", executor.getQueue().size());
+            throw new PaymentUnavailableException(properties.getQueueFullError());
+        }
+        log.debug("Checkout {} queued", job.id);
+        return job.toResponseDTO();
+    }
+
+    /**
+     * Get the state of a checkout.
+     *
+     * @param checkoutId the checkout ID
+     * @return the state of the checkout
+     * @throws ResourceNotFoundException if the checkout is unknown or has expired
+     */
+    public AsyncCheckoutResponseDTO getCheckout(String checkoutId) {
+        return findJob(checkoutId).toResponseDTO();
+    }
+
+    /**
+     * Follow a checkout through server-sent events.
+     * The current state is sent right away, then every change until the checkout completes or fails.
+     *
+     * @param checkoutId the checkout ID
+     * @return the event emitter
+     * @throws ResourceNotFoundException if the checkout is unknown or has expired
+     */
+    public SseEmitter subscribe(String checkoutId) {
+        CheckoutJob job = findJob(checkoutId);
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        emitter.onCompletion(() -> job.subscribers.remove(emitter));
+        emitter.onTimeout(() -> job.subscribers.remove(emitter));
+        emitter.onError(error -> job.subscribers.remove(emitter));
+
+        job.lock.lock();
+        try {
+            boolean terminal = job.status.isTerminal();
+            if (!terminal) {
+                job.subscribers.add(emitter);
+            }
+            publish(job, List.of(emitter), job.toResponseDTO(), terminal);
+        } finally {
+            job.lock.unlock();
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void process(CheckoutJob job, BictorysPaymentRequestDTO request, String idempotencyKey) {
+        update(job, CheckoutStatus.PROCESSING, null, null);
+        try {
+            BictorysPaymentResponseDTO response = idempotencyKey == null
+                    ? paymentService.createCheckoutPayment(request)
+                    : idempotencyService.execute(idempotencyKey, request,
+                    () -> paymentService.createCheckoutPayment(request)).getResponse();
+            update(job, CheckoutStatus.COMPLETED, response, null);
+            log.debug("Checkout {} completed", job.id);
+        } catch (RuntimeException e) {
+            // The checkout state is readable by anyone knowing its ID: the details only go to the log
+            log.warn("Checkout {} failed", job.id, e);
+            update(job, CheckoutStatus.FAILED, null, clientError(e));
+        }
+    }
+
+    /**
+     * Get the fixed message shown to clients for a checkout failure.
+     *
+     * @param e the failure
+     * @return the client-facing message
+     */
+    private String clientError(RuntimeException e) {
+        if (e instanceof PaymentUnavailableException) {
+            return properties.getUnavailableError();
+        }
+        if (e instanceof PaymentException) {
+            return properties.getPaymentError();
+        }
+        if (e instanceof IdempotencyKeyReuseException) {
+            return properties.getKeyReusedError();
+        }
+        return properties.getUnexpectedError();
+    }
+
+    private void update(CheckoutJob job, CheckoutStatus newStatus, BictorysPaymentResponseDTO newResponse,
+                        String newError) {
+        job.lock.lock();
+        try {
+            job.response = newResponse;
+            job.error = newError;
+            job.updatedAt = Instant.now().toEpochMilli();
+            job.status = newStatus;
+            List<SseEmitter> subscribers = List.copyOf(job.subscribers);
+            if (newStatus.isTerminal()) {
+                job.subscribers.clear();
+            }
+            publish(job, subscribers, job.toResponseDTO(), newStatus.isTerminal());
+        } finally {
+            job.lock.unlock();
+        }
+        if (newStatus.isTerminal()) {
+            // Put the finished checkout again so that it is weighed and its time to live starts
+            jobs.asMap().replace(job.id, job, job);
+        }
+    }
+
+    /**
+     * Queue the sending of a state to subscribers, after the events already queued for the checkout.
+     * Must be called while holding the checkout lock, which orders the events.
+     */
+    private void publish(CheckoutJob job, List<SseEmitter> subscribers, AsyncCheckoutResponseDTO state,
+                         boolean terminal) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        job.events = job.events.thenRunAsync(() -> {
+            for (SseEmitter emitter : subscribers) {
+                if (send(emitter, state) && terminal) {
+                    emitter.complete();
+                }
+            }
+        }, eventExecutor).exceptionally(e -> {
+            log.warn("Failed to send an event of checkout {}", job.id, e);
+            return null;
+        });
+    }
+
+    private CheckoutJob findJob(String checkoutId) {
+        CheckoutJob job = jobs.getIfPresent(checkoutId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Checkout", "id", checkoutId);
+        }
+        return job;
+    }
+
+    private static boolean send(SseEmitter emitter, AsyncCheckoutResponseDTO state) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(state));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * State of one checkout and the clients following it.
+     */
+    private static final class CheckoutJob {
+        private final String id;
+        private final long createdAt = Instant.now().toEpochMilli();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+        private volatile CheckoutStatus status = CheckoutStatus.PENDING;
+        private volatile BictorysPaymentResponseDTO response;
+        private volatile String error;
+        private volatile long updatedAt = createdAt;
+
+        /**
+         * Tail of the events queued for sending, guarded by the lock.
+         */
+        private CompletableFuture<Void> events = CompletableFuture.completedFuture(null);
+
+        private CheckoutJob(String id) {
+            this.id = id;
+        }
+
+        private AsyncCheckoutResponseDTO toResponseDTO() {
+            return AsyncCheckoutResponseDTO.builder()
+                    .checkoutId(id)
+                    .status(status)
+                    .checkoutUrl(response == null ? null : response.getCheckoutUrl())
+                    .payment(response)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
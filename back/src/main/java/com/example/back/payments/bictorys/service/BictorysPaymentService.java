@@ -1,10 +1,14 @@
 package com.example.back.payments.bictorys.service;
 
 import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.payments.bictorys.config.BictorysHttpClientConfig;
 import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
 import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
 import com.example.back.payments.bictorys.properties.BictorysPaymentProviderProperties;
+import com.example.back.payments.bictorys.resilience.BictorysResilience;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -15,16 +19,21 @@ public class BictorysPaymentService {
 
     private final RestTemplate restTemplate;
     private final BictorysPaymentProviderProperties properties;
+    private final BictorysResilience resilience;
 
-    public BictorysPaymentService(RestTemplate restTemplate, BictorysPaymentProviderProperties properties) {
+    public BictorysPaymentService(@Qualifier(BictorysHttpClientConfig.REST_TEMPLATE) RestTemplate restTemplate,
+                                  BictorysPaymentProviderProperties properties, BictorysResilience resilience) {
         this.restTemplate = restTemplate;
         this.properties = properties;
+        this.resilience = resilience;
     }
 
     /**
      * Crée un paiement checkout avec Bictorys
      * @param request Les données de paiement
      * @return La réponse de l'API contenant l'URL de redirection
+     * @throws PaymentUnavailableException si le circuit vers Bictorys est ouvert, si la limite d'appels simultanés
+     * est atteinte ou si la connexion à Bictorys échoue : dans ces cas aucun paiement n'a été créé
      */
     public BictorysPaymentResponseDTO createCheckoutPayment(BictorysPaymentRequestDTO request) throws PaymentException {
         try {
@@ -39,13 +48,13 @@ public class BictorysPaymentService {
             // Créer l'entité HTTP avec le corps et les headers
             HttpEntity<BictorysPaymentRequestDTO> entity = new HttpEntity<>(request, headers);
 
-            // Envoyer la requête POST
-            ResponseEntity<BictorysPaymentResponseDTO> response = restTemplate.exchange(
+            // Envoyer la requête POST, sous le circuit breaker et la politique de retry
+            ResponseEntity<BictorysPaymentResponseDTO> response = resilience.execute(() -> restTemplate.exchange(
                     properties.getApiUrl(),
                     HttpMethod.POST,
                     entity,
                     BictorysPaymentResponseDTO.class
-            );
+            ));
             log.info("response code: {}", response.getStatusCode());
             if (response.getStatusCode() == HttpStatus.ACCEPTED && response.getBody() != null) {
                 log.info("Paiement créé avec succès: {}", response.getBody());
@@ -54,7 +63,15 @@ public class BictorysPaymentService {
                 throw new PaymentException("Erreur lors de la création du paiement");
             }
 
-        } catch (Exception e) {
+        } catch (PaymentException e) {
+            log.error("Erreur lors de la création du paiement: {}", e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            if (BictorysResilience.isConnectFailure(e)) {
+                // La requête n'a jamais atteint Bictorys
+                log.error("Connexion à l'API Bictorys impossible: {}", e.getMessage());
+                throw new PaymentUnavailableException("Bictorys injoignable: " + e.getMessage());
+            }
             log.error("Erreur lors de l'appel à l'API Bictorys", e);
             throw new PaymentException("Erreur lors de la création du paiement: " + e.getMessage());
         }
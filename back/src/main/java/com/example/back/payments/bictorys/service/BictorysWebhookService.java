@@ -0,0 +1,62 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.payments.bictorys.dto.request.BictorysWebhookRequestDTO;
+import com.example.back.payments.bictorys.event.PaymentOutcomeEvent;
+import com.example.back.payments.bictorys.properties.BictorysPaymentProviderProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Locale;
+
+/**
+ * Traite les notifications de statut de paiement envoyées par Bictorys.
+ * Une notification n'est acceptée qu'avec le secret partagé configuré. Un statut final publie un
+ * {@link PaymentOutcomeEvent} ; les écouteurs le traitent dans le fil de la requête, de sorte qu'un échec
+ * renvoie une erreur à Bictorys, qui renvoie alors la notification. Les autres statuts sont ignorés.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BictorysWebhookService {
+
+    private final BictorysPaymentProviderProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Traite une notification de statut de paiement
+     * @param secret Le secret reçu dans le header de la notification
+     * @param notification La notification
+     * @throws BadCredentialsException si le secret est absent ou invalide
+     */
+    public void handle(String secret, BictorysWebhookRequestDTO notification) {
+        checkSecret(secret);
+
+        String status = notification.getStatus().toLowerCase(Locale.ROOT);
+        boolean paid = properties.getPaidStatuses().contains(status);
+        if (!paid && !properties.getFailedStatuses().contains(status)) {
+            log.debug("Statut {} de la charge {} ignoré", status, notification.getId());
+            return;
+        }
+
+        log.info("Charge {} terminée avec le statut {}", notification.getId(), status);
+        String reference = notification.getMerchantReference() != null
+                ? notification.getMerchantReference()
+                : notification.getPaymentReference();
+        eventPublisher.publishEvent(new PaymentOutcomeEvent(notification.getId(), reference, paid, status));
+    }
+
+    private void checkSecret(String secret) {
+        String expected = properties.getWebhookSecret();
+        if (expected == null || expected.isEmpty() || secret == null
+                || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Notification de paiement rejetée : secret absent ou invalide");
+            throw new BadCredentialsException("Invalid webhook secret");
+        }
+    }
+}
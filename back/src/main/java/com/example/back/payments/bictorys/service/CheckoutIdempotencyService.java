@@ -0,0 +1,189 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.common.exception.IdempotencyKeyReuseException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.properties.CheckoutIdempotencyProperties;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyStore.StoredCheckout;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs checkouts at most once per idempotency key.
+ * A completed checkout is stored under its key and replayed to later requests with the same key.
+ * The key is claimed in the store before the provider is called, so requests arriving while the first one is
+ * still calling the provider, on this instance or another, wait for its outcome instead of calling it again. Failed checkouts are not stored, so the client can retry them with the same key.
+ * A key sent again with a different request body is rejected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutIdempotencyService {
+
+    private final CheckoutIdempotencyProperties properties;
+    private final CheckoutIdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run a checkout once for the given idempotency key.
+     *
+     * @param key the idempotency key sent by the client
+     * @param request the checkout request
+     * @param checkout the call creating the checkout
+     * @return the checkout response, and whether it was replayed
+     * @throws ValidationException if the key is blank or too long
+     * @throws IdempotencyKeyReuseException if the key was used with a different request
+     */
+    public IdempotentResult execute(String key, BictorysPaymentRequestDTO request,
+                                    Supplier<BictorysPaymentResponseDTO> checkout) {
+        validateKey(key);
+        String fingerprint = fingerprint(request);
+
+        Optional<StoredCheckout> stored = store.find(key);
+        if (stored.isPresent() && !stored.get().isPending()) {
+            return replay(key, fingerprint, stored.get());
+        }
+
+        InFlight call = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            log.debug("Checkout with idempotency key {} already in flight, waiting for its outcome", key);
+            checkFingerprint(fingerprint, running.getFingerprint());
+            return new IdempotentResult(await(running.getResponse()), true);
+        }
+
+        try {
+            // Another request, possibly on another instance, may hold the key or have completed it
+            Optional<StoredCheckout> completed = claimOrAwait(key, fingerprint);
+            if (completed.isPresent()) {
+                call.getResponse().complete(completed.get().getResponse());
+                return replay(key, fingerprint, completed.get());
+            }
+
+            BictorysPaymentResponseDTO response;
+            try {
+                response = checkout.get();
+            } catch (RuntimeException e) {
+                store.release(key);
+                throw e;
+            }
+            StoredCheckout kept = store.complete(key, new StoredCheckout(fingerprint, response));
+            call.getResponse().complete(kept.getResponse());
+            return new IdempotentResult(kept.getResponse(), kept.getResponse() != response);
+        } catch (RuntimeException e) {
+            call.getResponse().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Claim a key, or wait for the request holding it to complete.
+     *
+     * @return the completed checkout of the request holding the key, or empty if the key was claimed
+     */
+    private Optional<StoredCheckout> claimOrAwait(String key, String fingerprint) {
+        while (true) {
+            Optional<StoredCheckout> stored = store.find(key);
+            if (stored.isEmpty()) {
+                if (store.claim(key, fingerprint)) {
+                    return Optional.empty();
+                }
+                continue;
+            }
+            if (!stored.get().isPending()) {
+                return stored;
+            }
+            checkFingerprint(fingerprint, stored.get().getFingerprint());
+            log.debug("Checkout with idempotency key {} pending on another instance, waiting for its outcome", key);
+            try {
+                Thread.sleep(properties.getPendingPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the checkout with key " + key, e);
+            }
+        }
+    }
+
+    private IdempotentResult replay(String key, String fingerprint, StoredCheckout stored) {
+        checkFingerprint(fingerprint, stored.getFingerprint());
+        log.debug("Replaying checkout stored with idempotency key {}", key);
+        return new IdempotentResult(stored.getResponse(), true);
+    }
+
+    /**
+     * Check that an idempotency key can be used.
+     *
+     * @param key the idempotency key sent by the client
+     * @throws ValidationException if the key is blank or too long
+     */
+    public void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            throw new ValidationException(String.format(properties.getKeyInvalidError(), properties.getMaxKeyLength()));
+        }
+    }
+
+    private void checkFingerprint(String fingerprint, String expected) {
+        if (!fingerprint.equals(expected)) {
+            throw new IdempotencyKeyReuseException(properties.getKeyReusedError());
+        }
+    }
+
+    private String fingerprint(BictorysPaymentRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint the checkout request", e);
+        }
+    }
+
+    private static BictorysPaymentResponseDTO await(CompletableFuture<BictorysPaymentResponseDTO> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Outcome of an idempotent checkout.
+     */
+    @Value
+    public static class IdempotentResult {
+
+        BictorysPaymentResponseDTO response;
+
+        /**
+         * True when the response was produced by an earlier request with the same key.
+         */
+        boolean replayed;
+    }
+
+    @Value
+    private static class InFlight {
+        String fingerprint;
+        CompletableFuture<BictorysPaymentResponseDTO> response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import lombok.Value;
+
+import java.util.Optional;
+
+/**
+ * Store of checkouts by idempotency key.
+ * A key is first claimed with a pending entry while the provider is called, then completed with the outcome.
+ * Pending entries expire after the configured pending timeout, completed ones after the configured time to live.
+ * An expired entry is treated as absent and replaced by the next claim.
+ */
+public interface CheckoutIdempotencyStore {
+
+    /**
+     * Find the checkout stored under a key, pending or completed.
+     *
+     * @param key the idempotency key
+     * @return the stored checkout, if any and not expired
+     */
+    Optional<StoredCheckout> find(String key);
+
+    /**
+     * Claim a key before calling the provider, replacing an expired entry.
+     *
+     * @param key the idempotency key
+     * @param fingerprint the fingerprint of the request
+     * @return true if the key was claimed, false if another request holds it
+     */
+    boolean claim(String key, String fingerprint);
+
+    /**
+     * Store the outcome of a checkout under its claimed key.
+     * If another outcome was stored under the key in the meantime, it is kept and returned instead.
+     *
+     * @param key the idempotency key
+     * @param checkout the completed checkout
+     * @return the checkout stored under the key
+     */
+    StoredCheckout complete(String key, StoredCheckout checkout);
+
+    /**
+     * Give up a claimed key after a failed checkout, so that it can be retried.
+     * A completed entry is left untouched.
+     *
+     * @param key the idempotency key
+     */
+    void release(String key);
+
+    /**
+     * A checkout with the fingerprint of the request that created it.
+     * The response is null while the checkout is pending.
+     */
+    @Value
+    class StoredCheckout {
+        String fingerprint;
+        BictorysPaymentResponseDTO response;
+
+        public boolean isPending() {
+            return response == null;
+        }
+    }
+}
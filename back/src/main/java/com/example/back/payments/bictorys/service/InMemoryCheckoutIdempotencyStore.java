@@ -0,0 +1,75 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.payments.bictorys.properties.CheckoutIdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * In-process idempotency store, bounded in size with a time to live.
+ * Keys are only known to the instance that handled the first request.
+ * Metrics are exposed under the "checkout-idempotency" cache name.
+ */
+@Component
+@ConditionalOnProperty(prefix = "checkout-idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCheckoutIdempotencyStore implements CheckoutIdempotencyStore {
+
+    private static final String CACHE_NAME = "checkout-idempotency";
+
+    private final Cache<String, StoredCheckout> cache;
+
+    public InMemoryCheckoutIdempotencyStore(CheckoutIdempotencyProperties properties, MeterRegistry meterRegistry) {
+        long pendingNanos = properties.getPendingTimeout().toNanos();
+        long ttlNanos = properties.getTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, StoredCheckout>() {
+                    @Override
+                    public long expireAfterCreate(String key, StoredCheckout checkout, long currentTime) {
+                        return checkout.isPending() ? pendingNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, StoredCheckout checkout, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, checkout, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, StoredCheckout checkout, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Optional<StoredCheckout> find(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        return cache.asMap().putIfAbsent(key, new StoredCheckout(fingerprint, null)) == null;
+    }
+
+    @Override
+    public StoredCheckout complete(String key, StoredCheckout checkout) {
+        return cache.asMap().compute(key,
+                (k, stored) -> stored == null || stored.isPending() ? checkout : stored);
+    }
+
+    @Override
+    public void release(String key) {
+        cache.asMap().computeIfPresent(key, (k, stored) -> stored.isPending() ? null : stored);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.model.CheckoutIdempotencyRecord;
+import com.example.back.payments.bictorys.properties.CheckoutIdempotencyProperties;
+import com.example.back.payments.bictorys.repository.CheckoutIdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Idempotency store backed by the database, shared by every instance of the application.
+ * A key is claimed by inserting a pending row, so only one instance calls the provider for it; the primary key
+ * decides between instances claiming the same key at once. An expired row is deleted in the transaction that
+ * inserts its replacement, so a key does not stay blocked until the periodic purge.
+ */
+@Component
+@ConditionalOnProperty(prefix = "checkout-idempotency", name = "store", havingValue = "jdbc")
+@Slf4j
+public class JpaCheckoutIdempotencyStore implements CheckoutIdempotencyStore {
+
+    private final CheckoutIdempotencyProperties properties;
+    private final CheckoutIdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaCheckoutIdempotencyStore(CheckoutIdempotencyProperties properties,
+                                       CheckoutIdempotencyRepository repository, ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StoredCheckout> find(String key) {
+        return repository.findActive(key, Instant.now().toEpochMilli()).map(this::toStoredCheckout);
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        long now = Instant.now().toEpochMilli();
+        return insertReplacingExpired(new CheckoutIdempotencyRecord(key, fingerprint, null, now,
+                now + properties.getPendingTimeout().toMillis()));
+    }
+
+    @Override
+    public StoredCheckout complete(String key, StoredCheckout checkout) {
+        long now = Instant.now().toEpochMilli();
+        String responseJson = writeResponse(checkout.getResponse());
+        long expiresAt = now + properties.getTtl().toMillis();
+        Integer completed = transactionTemplate.execute(status -> repository.complete(key, checkout.getFingerprint(),
+                responseJson, expiresAt, now));
+        if (completed != null && completed > 0) {
+            return checkout;
+        }
+
+        // The claim expired and was removed or replaced: store the outcome unless another one is stored
+        if (insertReplacingExpired(new CheckoutIdempotencyRecord(key, checkout.getFingerprint(), responseJson,
+                now, expiresAt))) {
+            return checkout;
+        }
+        log.warn("Idempotency key {} was completed by another request, keeping its outcome", key);
+        return find(key).filter(stored -> !stored.isPending()).orElse(checkout);
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        repository.deletePending(key);
+    }
+
+    /**
+     * Purge the expired keys.
+     */
+    @Scheduled(fixedDelayString = "${checkout-idempotency.purge-interval}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(Instant.now().toEpochMilli());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * Delete the expired row of the key, if any, and insert the record in the same transaction.
+     *
+     * @return false if an unexpired row already holds the key
+     */
+    private boolean insertReplacingExpired(CheckoutIdempotencyRecord record) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.deleteExpiredKey(record.getIdempotencyKey(), record.getCreatedAt());
+                repository.saveAndFlush(record);
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} already stored", record.getIdempotencyKey());
+            return false;
+        }
+    }
+
+    private StoredCheckout toStoredCheckout(CheckoutIdempotencyRecord record) {
+        return new StoredCheckout(record.getFingerprint(),
+                record.getResponseJson() == null ? null : readResponse(record.getResponseJson()));
+    }
+
+    private String writeResponse(BictorysPaymentResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the checkout response", e);
+        }
+    }
+
+    private BictorysPaymentResponseDTO readResponse(String json) {
+        try {
+            return objectMapper.readValue(json, BictorysPaymentResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read the stored checkout response", e);
+        }
+    }
+}
@@ -3,9 +3,17 @@ package com.example.back.product.controller;
 import com.example.back.common.dto.ApiDataResponse;
 import com.example.back.common.exception.ResourceNotFoundException;
 import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.request.ProductBatchDeleteRequestDTO;
+import com.example.back.product.dto.request.ProductBatchUpdateRequestDTO;
 import com.example.back.product.dto.request.ProductCreateRequestDTO;
 import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.dto.response.ProductBatchResultDTO;
+import com.example.back.product.dto.response.ProductImportReportDTO;
+import com.example.back.product.dto.response.ProductPageResponseDTO;
 import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.dto.response.ProductSearchResponseDTO;
+import com.example.back.product.dto.response.ProductSuggestionDTO;
+import com.example.back.product.model.InventoryStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,9 +24,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -59,14 +72,47 @@ public interface ProductApi {
             @Parameter(description = "Product creation information", required = true)
             @Valid @RequestBody ProductCreateRequestDTO createDTO);
 
+    /**
+     * Endpoint to import products in bulk.
+     *
+     * @param input the streamed JSON array or newline-delimited JSON document of products
+     * @return the import report, listing the rejected rows
+     */
+    @Operation(
+            summary = "Import products in bulk",
+            description = "Imports products from a JSON array or from newline-delimited JSON (one product per line). Rows are validated like single product creations and inserted in batches. Invalid rows are reported without aborting the import."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import completed, see the report for rejected rows",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiDataResponse.class))
+            )
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "JSON array or newline-delimited JSON of products to create",
+            required = true,
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ProductCreateRequestDTO.class))),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductCreateRequestDTO.class))
+            }
+    )
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<ApiDataResponse<ProductImportReportDTO>> importProducts(InputStream input);
+
     /**
      * Endpoint to retrieve all products.
      *
-     * @return a list of all products
+     * @param webRequest the current request, used to answer conditional requests
+     * @param acceptEncoding the content codings accepted by the client
+     * @return the serialized list of all products, or no body if the catalog did not change
      */
     @Operation(
             summary = "Get all products",
-            description = "Retrieves a list of all available products"
+            description = "Retrieves a list of all available products. Supports conditional requests with If-None-Match and If-Modified-Since. The list is served gzip-compressed when the client accepts it, with an entity tag distinct from the uncompressed one."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -74,21 +120,183 @@ public interface ProductApi {
                     description = "Products successfully retrieved",
                     content = @Content(mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Catalog not modified"
             )
     })
     @GetMapping
-    ResponseEntity<List<ProductResponseDTO>> getAllProducts();
+    ResponseEntity<byte[]> getAllProducts(
+            WebRequest webRequest,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
+
+    /**
+     * Endpoint to retrieve one page of products using keyset pagination.
+     *
+     * @param category the category filter
+     * @param inventoryStatus the inventory status filter
+     * @param minPrice the minimum price filter
+     * @param maxPrice the maximum price filter
+     * @param minRating the minimum rating filter
+     * @param after the cursor returned by the previous page
+     * @param size the page size
+     * @return the page of products
+     * @throws ValidationException if the page size or the cursor is invalid
+     */
+    @Operation(
+            summary = "Get a page of products",
+            description = "Retrieves one page of products, most recently created first, filtered by category, inventory status, price range and rating. Use the returned next_cursor as the after parameter to fetch the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Product page successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductPageResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page size or cursor",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/page")
+    ResponseEntity<ProductPageResponseDTO> getProductPage(
+            @Parameter(description = "Category filter")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Inventory status filter")
+            @RequestParam(name = "inventory_status", required = false) InventoryStatus inventoryStatus,
+            @Parameter(description = "Minimum price filter")
+            @RequestParam(name = "min_price", required = false) Double minPrice,
+            @Parameter(description = "Maximum price filter")
+            @RequestParam(name = "max_price", required = false) Double maxPrice,
+            @Parameter(description = "Minimum rating filter")
+            @RequestParam(name = "min_rating", required = false) Integer minRating,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size);
+
+    /**
+     * Endpoint to search products.
+     *
+     * @param query the full-text query
+     * @param category the category filter
+     * @param inventoryStatus the inventory status filter
+     * @param page the page number, starting at 0
+     * @param size the page size
+     * @return the page of matching products with facet counts
+     * @throws ValidationException if the query is blank or the page is invalid
+     */
+    @Operation(
+            summary = "Search products",
+            description = "Full-text search on product name, category and description. Query words also match as prefixes and with small typos. Results are ranked by relevance and come with counts per category and inventory status."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Search results successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductSearchResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid page",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/search")
+    ResponseEntity<ProductSearchResponseDTO> searchProducts(
+            @Parameter(description = "Search query", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Category filter")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Inventory status filter")
+            @RequestParam(name = "inventory_status", required = false) InventoryStatus inventoryStatus,
+            @Parameter(description = "Page number, starting at 0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size);
+
+    /**
+     * Endpoint to suggest products while the user types.
+     *
+     * @param query the typed prefix
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, best rated and most in stock first
+     * @throws ValidationException if the query is blank or the limit is invalid
+     */
+    @Operation(
+            summary = "Suggest products",
+            description = "Returns the products whose name, any word of their name, or code starts with the typed text, ranked by rating then stock. Served from memory without querying the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions successfully retrieved",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductSuggestionDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid limit",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/suggest")
+    ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @Parameter(description = "Typed text", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of suggestions")
+            @RequestParam(required = false) Integer limit);
+
+    /**
+     * Endpoint to export the whole catalog.
+     *
+     * @param format the export format, ndjson (default) or csv
+     * @param webRequest the current request, whose async timeout is raised for the export
+     * @return the streamed export
+     * @throws ValidationException if the format is not supported
+     */
+    @Operation(
+            summary = "Export all products",
+            description = "Streams the whole catalog, one product per line, as newline-delimited JSON or as CSV with a header row."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products successfully exported",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = ProductResponseDTO.class)),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported export format",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Export format: ndjson or csv")
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            WebRequest webRequest);
 
     /**
      * Endpoint to retrieve a product by its ID.
      *
      * @param id the product ID
-     * @return the product with the specified ID
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the product with the specified ID, or no body if it did not change
      * @throws ResourceNotFoundException if the product is not found
      */
     @Operation(
             summary = "Get product by ID",
-            description = "Retrieves a specific product based on its ID"
+            description = "Retrieves a specific product based on its ID. Supports conditional requests with If-None-Match and If-Modified-Since."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -97,6 +305,10 @@ public interface ProductApi {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductResponseDTO.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Product not modified"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Product not found",
@@ -106,7 +318,8 @@ public interface ProductApi {
     @GetMapping("/{id}")
     ResponseEntity<ProductResponseDTO> getProductById(
             @Parameter(description = "Product ID", required = true)
-            @PathVariable Long id);
+            @PathVariable Long id,
+            WebRequest webRequest);
 
     /**
      * Endpoint to update an existing product.
@@ -175,4 +388,62 @@ public interface ProductApi {
     ResponseEntity<ApiDataResponse<Void>> deleteProduct(
             @Parameter(description = "Product ID", required = true)
             @PathVariable Long id);
+
+    /**
+     * Endpoint to update many products at once.
+     *
+     * @param batchDTO the partial updates, one per product
+     * @return the result of each update
+     * @throws ValidationException if the batch is empty or too large
+     */
+    @Operation(
+            summary = "Update products in batch",
+            description = "Applies partial updates to many products in a single transaction. Each update has the same semantics as a single product update. Products that cannot be updated are reported with their status without failing the batch."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see the per-product results",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiDataResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or too large batch",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PatchMapping("/batch")
+    ResponseEntity<ApiDataResponse<ProductBatchResultDTO>> updateProducts(
+            @Parameter(description = "Product updates", required = true)
+            @Valid @RequestBody ProductBatchUpdateRequestDTO batchDTO);
+
+    /**
+     * Endpoint to delete many products at once.
+     *
+     * @param batchDTO the IDs of the products to delete
+     * @return the result of each deletion
+     * @throws ValidationException if the batch is empty or too large
+     */
+    @Operation(
+            summary = "Delete products in batch",
+            description = "Deletes many products with a single statement. Unknown IDs are reported as not found, products still referenced by a cart or a wishlist are kept and reported as failed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see the per-product results",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiDataResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or too large batch",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/batch/delete")
+    ResponseEntity<ApiDataResponse<ProductBatchResultDTO>> deleteProducts(
+            @Parameter(description = "Product IDs", required = true)
+            @Valid @RequestBody ProductBatchDeleteRequestDTO batchDTO);
 }
\ No newline at end of file
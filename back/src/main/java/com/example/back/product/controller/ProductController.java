@@ -1,18 +1,45 @@
 package com.example.back.product.controller;
 
 import com.example.back.common.dto.ApiDataResponse;
+import com.example.back.common.dto.ResourceVersion;
+import com.example.back.product.dto.request.ProductBatchDeleteRequestDTO;
+import com.example.back.product.dto.request.ProductBatchUpdateRequestDTO;
 import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.dto.request.ProductPageRequestDTO;
+import com.example.back.product.dto.response.ProductBatchResultDTO;
+import com.example.back.product.dto.response.ProductImportReportDTO;
+import com.example.back.product.dto.response.ProductPageResponseDTO;
 import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.dto.response.ProductSearchResponseDTO;
+import com.example.back.product.dto.response.ProductSuggestionDTO;
 import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.ProductExportFormat;
+import com.example.back.product.properties.ProductExportProperties;
+import com.example.back.product.service.ProductBatchService;
+import com.example.back.product.service.ProductCatalogSnapshot;
+import com.example.back.product.service.ProductExportService;
+import com.example.back.product.service.ProductImportService;
+import com.example.back.product.service.ProductSearchService;
+import com.example.back.product.service.ProductSuggestionIndex;
 import com.example.back.product.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Controller for product management endpoints.
@@ -24,6 +51,15 @@ import java.util.List;
 public class ProductController implements ProductApi {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductBatchService productBatchService;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final ProductExportProperties productExportProperties;
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
 
     /**
      * {@inheritDoc}
@@ -46,19 +82,132 @@ public class ProductController implements ProductApi {
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
+    public ResponseEntity<ApiDataResponse<ProductImportReportDTO>> importProducts(InputStream input) {
+        log.debug("REST request to import products");
+        ProductImportReportDTO report = productImportService.importProducts(input);
+
+        ApiDataResponse<ProductImportReportDTO> response = new ApiDataResponse<>(
+                true,
+                "Product import completed",
+                report
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<byte[]> getAllProducts(WebRequest webRequest, String acceptEncoding) {
         log.debug("REST request to get all products");
-        List<ProductResponseDTO> products = productService.getAllProducts();
+        // The entity tag is the one of the snapshot served, which may lag behind the catalog while it is rebuilt
+        ProductCatalogSnapshot.Snapshot snapshot = productCatalogSnapshot.get(productService.getCatalogVersion());
+        boolean gzip = snapshot.getGzip() != null && acceptsGzip(acceptEncoding);
+
+        // Each encoding is a distinct representation, so it gets its own strong entity tag
+        String etag = gzip ? snapshot.getEtag() + GZIP_ETAG_SUFFIX : snapshot.getEtag();
+        if (snapshot.getGzip() != null) {
+            // A cache holding the other encoding revalidates it with its tag: confirm that copy instead
+            String otherEtag = gzip ? snapshot.getEtag() : snapshot.getEtag() + GZIP_ETAG_SUFFIX;
+            if (!ifNoneMatchContains(webRequest, etag) && ifNoneMatchContains(webRequest, otherEtag)) {
+                etag = otherEtag;
+            }
+        }
+        if (webRequest.checkNotModified(etag, snapshot.getLastModified())) {
+            // 304 Not Modified, nothing is written
+            return null;
+        }
+
+        // The snapshot bytes are written as they are, nothing is serialized per request
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> {
+                    if (gzip) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .body(gzip ? snapshot.getGzip() : snapshot.getJson());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<ProductPageResponseDTO> getProductPage(
+            String category,
+            InventoryStatus inventoryStatus,
+            Double minPrice,
+            Double maxPrice,
+            Integer minRating,
+            String after,
+            Integer size) {
+        log.debug("REST request to get a page of products after cursor: {}", after);
+        ProductPageRequestDTO pageRequest = new ProductPageRequestDTO(
+                category, inventoryStatus, minPrice, maxPrice, minRating, after, size);
+
+        return ResponseEntity.ok(productService.getProductPage(pageRequest));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<ProductSearchResponseDTO> searchProducts(
+            String query,
+            String category,
+            InventoryStatus inventoryStatus,
+            Integer page,
+            Integer size) {
+        log.debug("REST request to search products: {}", query);
+        return ResponseEntity.ok(productSearchService.searchProducts(query, category, inventoryStatus, page, size));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(String query, Integer limit) {
+        log.debug("REST request to suggest products for: {}", query);
+        return ResponseEntity.ok(productSuggestionIndex.suggest(query, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportProducts(String format, WebRequest webRequest) {
+        log.debug("REST request to export products as {}", format);
+        ProductExportFormat exportFormat = productExportService.parseFormat(format);
+
+        // Only the export needs more time than the default async timeout
+        WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest()
+                .setTimeout(productExportProperties.getTimeout().toMillis());
+
+        boolean csv = exportFormat == ProductExportFormat.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(csv ? "products.csv" : "products.ndjson")
+                .build();
+        StreamingResponseBody body = output -> productExportService.export(exportFormat, output);
 
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get product by id: {}", id);
+        ResourceVersion version = productService.getProductVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+
         ProductResponseDTO product = productService.getProductById(id);
 
         return ResponseEntity.ok(product);
@@ -99,4 +248,108 @@ public class ProductController implements ProductApi {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<ApiDataResponse<ProductBatchResultDTO>> updateProducts(
+            @Valid ProductBatchUpdateRequestDTO batchDTO) {
+        log.debug("REST request to update {} products in batch", batchDTO.getProducts().size());
+        ProductBatchResultDTO result = productBatchService.updateProducts(batchDTO.getProducts());
+
+        ApiDataResponse<ProductBatchResultDTO> response = new ApiDataResponse<>(
+                true,
+                "Batch update completed",
+                result
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<ApiDataResponse<ProductBatchResultDTO>> deleteProducts(
+            @Valid ProductBatchDeleteRequestDTO batchDTO) {
+        log.debug("REST request to delete {} products in batch", batchDTO.getIds().size());
+        ProductBatchResultDTO result = productBatchService.deleteProducts(batchDTO.getIds());
+
+        ApiDataResponse<ProductBatchResultDTO> response = new ApiDataResponse<>(
+                true,
+                "Batch delete completed",
+                result
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Check if the If-None-Match header of a request lists an entity tag, compared weakly as for a GET.
+     *
+     * @param webRequest the request
+     * @param etag the unquoted entity tag
+     * @return true if the entity tag is listed
+     */
+    static boolean ifNoneMatchContains(WebRequest webRequest, String etag) {
+        String[] values = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            for (String entry : value.split(",")) {
+                String tag = entry.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                    tag = tag.substring(1, tag.length() - 1);
+                }
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if an Accept-Encoding header accepts gzip.
+     * gzip is accepted when it is listed, or covered by "*", with a non-zero quality value.
+     *
+     * @param acceptEncoding the Accept-Encoding header, may be null
+     * @return true if the response may be gzip-compressed
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+}
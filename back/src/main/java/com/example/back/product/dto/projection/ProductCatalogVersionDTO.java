@@ -0,0 +1,18 @@
+package com.example.back.product.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregate of the product table that changes whenever a product is created, updated, deleted or its stock moves.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCatalogVersionDTO {
+    private Long productCount;
+    private Long maxId;
+    private Long versionSum;
+    private Long maxUpdatedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.back.product.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version columns of a product, read without loading the entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductVersionDTO {
+    private Long id;
+    private Long version;
+    private Long updatedAt;
+}
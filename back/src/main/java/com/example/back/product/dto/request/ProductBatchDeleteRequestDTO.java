@@ -0,0 +1,21 @@
+package com.example.back.product.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for batch product delete requests.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDeleteRequestDTO {
+
+    @NotEmpty(message = "Product IDs to delete are required")
+    private List<@NotNull(message = "Product ID cannot be null") Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.example.back.product.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Data Transfer Object for one product of a batch update request.
+ * Carries the ID of the product next to the same optional fields as a single product update.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ProductBatchUpdateItemDTO extends ProductUpdateRequestDTO {
+
+    @NotNull(message = "Product ID is required")
+    private Long id;
+}
@@ -0,0 +1,22 @@
+package com.example.back.product.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for batch product update requests.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchUpdateRequestDTO {
+
+    @NotEmpty(message = "Products to update are required")
+    @Valid
+    private List<ProductBatchUpdateItemDTO> products;
+}
@@ -0,0 +1,24 @@
+package com.example.back.product.dto.request;
+
+import com.example.back.product.model.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for paginated product listing requests.
+ * All filters are optional. The cursor is the opaque value returned as next cursor by the previous page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageRequestDTO {
+
+    private String category;
+    private InventoryStatus inventoryStatus;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minRating;
+    private String after;
+    private Integer size;
+}
@@ -52,4 +52,9 @@ public class ProductUpdateRequestDTO {
     @Min(value = 0, message = "Rating cannot be negative")
     @Max(value = 5, message = "Rating cannot be greater than 5")
     private Integer rating;
+
+    /**
+     * Version the update is based on. When provided, the update is rejected if the product changed since.
+     */
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.back.product.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the outcome of one product of a batch operation.
+ * The message is only set when the product was not processed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductBatchItemResultDTO {
+    private Long id;
+    private ProductBatchStatus status;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.example.back.product.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object summarizing a batch product operation, with one result per requested ID.
+ */
+@Data
+@NoArgsConstructor
+public class ProductBatchResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<ProductBatchItemResultDTO> results = new ArrayList<>();
+}
@@ -0,0 +1,5 @@
+package com.example.back.product.dto.response;
+
+public enum ProductBatchStatus {
+    UPDATED, DELETED, NOT_FOUND, INVALID, CONFLICT, FAILED
+}
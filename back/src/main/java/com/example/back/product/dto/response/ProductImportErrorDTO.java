@@ -0,0 +1,20 @@
+package com.example.back.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object describing a rejected row of a product import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDTO {
+
+    /**
+     * Position of the row in the imported document, starting at 1.
+     */
+    private long row;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.example.back.product.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object summarizing a product import.
+ * Only the first errors are listed, errors_truncated tells whether some were left out.
+ */
+@Data
+@NoArgsConstructor
+public class ProductImportReportDTO {
+
+    @JsonProperty("total_rows")
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private List<ProductImportErrorDTO> errors = new ArrayList<>();
+    @JsonProperty("errors_truncated")
+    private boolean errorsTruncated;
+}
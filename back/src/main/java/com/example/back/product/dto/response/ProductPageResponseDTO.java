@@ -0,0 +1,26 @@
+package com.example.back.product.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for paginated product listing responses.
+ * The next cursor must be sent back as the after parameter to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponseDTO {
+
+    private List<ProductResponseDTO> items = new ArrayList<>();
+    private Integer size;
+    @JsonProperty("has_next")
+    private Boolean hasNext;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
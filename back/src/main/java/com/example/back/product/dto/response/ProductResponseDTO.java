@@ -34,4 +34,5 @@ public class ProductResponseDTO {
     private Long createdAt;
     @JsonProperty("updated_at")
     private Long updatedAt;
+    private Long version;
 }
\ No newline at end of file
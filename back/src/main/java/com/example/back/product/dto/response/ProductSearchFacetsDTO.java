@@ -0,0 +1,21 @@
+package com.example.back.product.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the facet counts of a product search.
+ * Counts are computed on every product matching the query, before the category and inventory status filters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchFacetsDTO {
+    private Map<String, Long> category;
+    @JsonProperty("inventory_status")
+    private Map<String, Long> inventoryStatus;
+}
@@ -0,0 +1,21 @@
+package com.example.back.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of product search results, most relevant first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponseDTO {
+    private List<ProductResponseDTO> items;
+    private long total;
+    private int page;
+    private int size;
+    private ProductSearchFacetsDTO facets;
+}
@@ -0,0 +1,18 @@
+package com.example.back.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for an autocomplete suggestion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO {
+    private String code;
+    private String name;
+    private Integer rating;
+    private Integer quantity;
+}
@@ -0,0 +1,30 @@
+package com.example.back.product.event;
+
+import com.example.back.product.model.Product;
+import lombok.Value;
+
+/**
+ * Application event published when a product is created, updated or deleted.
+ * Listeners interested in committed data only should use a transactional event listener.
+ */
+@Value
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    Long productId;
+    ChangeType type;
+
+    /**
+     * The product state after the change, or its last state when it was deleted.
+     * Null for products deleted in bulk, which are removed without being loaded.
+     */
+    Product product;
+
+    /**
+     * The stock quantity before the change, or null when the product was created.
+     */
+    Integer previousQuantity;
+}
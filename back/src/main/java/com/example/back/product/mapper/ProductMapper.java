@@ -39,7 +39,8 @@ public class ProductMapper {
             product.getInventoryStatus(),
             product.getRating(),
             product.getCreatedAt(),
-            product.getUpdatedAt()
+            product.getUpdatedAt(),
+            product.getVersion()
         );
     }
 
@@ -9,14 +9,21 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_created_at_id", columnList = "category, created_at, id"),
+        @Index(name = "idx_products_inventory_status_created_at_id", columnList = "inventory_status, created_at, id"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_rating", columnList = "rating")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product code is required")
@@ -59,6 +66,12 @@ public class Product {
     @Max(value = 5, message = "Rating cannot be greater than 5")
     private Integer rating;
 
+    /**
+     * Optimistic lock version, incremented on every update including conditional stock decrements.
+     */
+    @Version
+    private Long version;
+
     @JoinColumn(name = "created_at", nullable = false)
     private Long createdAt;
 
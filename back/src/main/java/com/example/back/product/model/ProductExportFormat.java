@@ -0,0 +1,5 @@
+package com.example.back.product.model;
+
+public enum ProductExportFormat {
+    NDJSON, CSV
+}
@@ -0,0 +1,15 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "product-batch")
+@Configuration
+@Data
+public class ProductBatchProperties {
+    private int maxSize;
+    private String sizeError;
+    private String versionConflictError;
+    private String referencedError;
+}
@@ -0,0 +1,15 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product-cache")
+@Configuration
+@Data
+public class ProductCacheProperties {
+    private long maximumSize;
+    private Duration expireAfterWrite;
+}
@@ -0,0 +1,13 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "product-code")
+@Configuration
+@Data
+public class ProductCodeProperties {
+    private String prefix;
+    private int nodeId;
+}
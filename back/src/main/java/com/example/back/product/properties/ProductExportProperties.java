@@ -0,0 +1,16 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product-export")
+@Configuration
+@Data
+public class ProductExportProperties {
+    private int clearInterval;
+    private Duration timeout;
+    private String invalidFormatError;
+}
@@ -0,0 +1,14 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "product-import")
+@Configuration
+@Data
+public class ProductImportProperties {
+    private int batchSize;
+    private int maxReportedErrors;
+    private String readError;
+}
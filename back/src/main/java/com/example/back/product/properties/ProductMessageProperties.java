@@ -8,14 +8,15 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @Data
 public class ProductMessageProperties {
-    private int codeLength;
-    private String codePrefix;
     private double minValue;
-    private int uuidMinLength;
     private String idNullError;
     private String nameNullError;
     private String nameEmptyError;
     private String negativeValueError;
     private String createNullError;
     private String updateNullError;
+    private int pageDefaultSize;
+    private int pageMaxSize;
+    private String pageSizeError;
+    private String invalidCursorError;
 }
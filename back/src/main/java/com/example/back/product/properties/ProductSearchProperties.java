@@ -0,0 +1,21 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "product-search")
+@Configuration
+@Data
+public class ProductSearchProperties {
+    private float nameWeight;
+    private float categoryWeight;
+    private float descriptionWeight;
+    private float prefixBoost;
+    private float fuzzyBoost;
+    private int maxPrefixExpansions;
+    private int defaultPageSize;
+    private int maxPageSize;
+    private String queryRequiredError;
+    private String pageError;
+}
@@ -0,0 +1,16 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product-snapshot")
+@Configuration
+@Data
+public class ProductSnapshotProperties {
+    private boolean gzipEnabled;
+    private int gzipMinSize;
+    private Duration versionRefreshInterval;
+}
@@ -0,0 +1,15 @@
+package com.example.back.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "product-suggest")
+@Configuration
+@Data
+public class ProductSuggestProperties {
+    private int defaultLimit;
+    private int maxLimit;
+    private String queryRequiredError;
+    private String limitError;
+}
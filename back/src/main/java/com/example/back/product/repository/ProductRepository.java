@@ -1,10 +1,189 @@
 package com.example.back.product.repository;
 
+import com.example.back.product.dto.projection.ProductCatalogVersionDTO;
+import com.example.back.product.dto.projection.ProductVersionDTO;
+import com.example.back.product.model.InventoryStatus;
 import com.example.back.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    boolean existsByCode(String code);
-}
\ No newline at end of file
+    /**
+     * Find one page of products using keyset pagination.
+     * Products are ordered by most recently created first, the id breaking ties,
+     * so that the position of the previous page can be resumed without an OFFSET scan.
+     * The creation time never changes, so stock moves and edits made while paging do not move a product
+     * across the cursor.
+     * Every filter is optional and ignored when null.
+     *
+     * @param category the category to match, or null
+     * @param inventoryStatus the inventory status to match, or null
+     * @param minPrice the minimum price (inclusive), or null
+     * @param maxPrice the maximum price (inclusive), or null
+     * @param minRating the minimum rating (inclusive), or null
+     * @param afterCreatedAt the createdAt of the last product of the previous page, or null for the first page
+     * @param afterId the id of the last product of the previous page, or null for the first page
+     * @param pageable the page limit (the page number must always be 0)
+     * @return the products of the page
+     */
+    @Query("""
+            SELECT p FROM Product p
+            WHERE (:category IS NULL OR p.category = :category)
+              AND (:inventoryStatus IS NULL OR p.inventoryStatus = :inventoryStatus)
+              AND (:minPrice IS NULL OR p.price >= :minPrice)
+              AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+              AND (:minRating IS NULL OR p.rating >= :minRating)
+              AND (:afterCreatedAt IS NULL
+                   OR p.createdAt < :afterCreatedAt
+                   OR (p.createdAt = :afterCreatedAt AND p.id < :afterId))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Product> findPage(@Param("category") String category,
+                           @Param("inventoryStatus") InventoryStatus inventoryStatus,
+                           @Param("minPrice") Double minPrice,
+                           @Param("maxPrice") Double maxPrice,
+                           @Param("minRating") Integer minRating,
+                           @Param("afterCreatedAt") Long afterCreatedAt,
+                           @Param("afterId") Long afterId,
+                           Pageable pageable);
+
+    /**
+     * Atomically decrement the stock of a product if enough quantity is available.
+     * The check and the decrement happen in a single conditional statement, so concurrent
+     * reservations can never oversell without taking a pessimistic lock on the row.
+     * The version is incremented so that concurrent optimistic updates of the product fail.
+     *
+     * @param id the product ID
+     * @param quantity the quantity to remove from stock
+     * @param updatedAt the update timestamp
+     * @return 1 if the stock was decremented, 0 if the product does not exist or not enough stock is available
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.quantity = p.quantity - :quantity, p.version = p.version + 1, p.updatedAt = :updatedAt
+            WHERE p.id = :id AND p.quantity >= :quantity
+            """)
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("updatedAt") Long updatedAt);
+
+    /**
+     * Atomically give back stock to a product.
+     *
+     * @param id the product ID
+     * @param quantity the quantity to add back to stock
+     * @param updatedAt the update timestamp
+     * @return 1 if the stock was incremented, 0 if the product does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.quantity = p.quantity + :quantity, p.version = p.version + 1, p.updatedAt = :updatedAt
+            WHERE p.id = :id
+            """)
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("updatedAt") Long updatedAt);
+
+    /**
+     * Atomically apply a stock delta to a product, without any availability check.
+     * Used to write back stock movements already validated elsewhere.
+     *
+     * @param id the product ID
+     * @param delta the quantity to add, negative to remove stock
+     * @param updatedAt the update timestamp
+     * @return 1 if the stock was adjusted, 0 if the product does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.quantity = p.quantity + :delta, p.version = p.version + 1, p.updatedAt = :updatedAt
+            WHERE p.id = :id
+            """)
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") Long updatedAt);
+
+    /**
+     * Stream every product in ID order through a forward-only cursor.
+     * Rows are fetched from the database in chunks and loaded as read-only entities.
+     * The stream must be consumed inside a transaction and closed after use.
+     *
+     * @return the stream of products
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Find which of the given product IDs exist.
+     *
+     * @param ids the product IDs
+     * @return the IDs of the existing products
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the products with the given IDs in a single statement, without loading them.
+     *
+     * @param ids the product IDs
+     * @return the number of deleted products
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the highest product codes starting with a prefix, in numeric order of their base 36 suffix:
+     * longer codes first, then codes of the same length in reverse alphabetical order.
+     *
+     * @param prefix the code prefix
+     * @param pageable the number of codes to return
+     * @return the highest codes
+     */
+    @Query("""
+            SELECT p.code FROM Product p
+            WHERE p.code LIKE CONCAT(:prefix, '%')
+            ORDER BY LENGTH(p.code) DESC, p.code DESC
+            """)
+    List<String> findHighestCodes(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * Read the version columns of a product from its row.
+     *
+     * @param id the product ID
+     * @return an Optional containing the product version, or empty if the product is not found
+     */
+    @Query("""
+            SELECT new com.example.back.product.dto.projection.ProductVersionDTO(p.id, p.version, p.updatedAt)
+            FROM Product p
+            WHERE p.id = :id
+            """)
+    Optional<ProductVersionDTO> findVersionById(@Param("id") Long id);
+
+    /**
+     * Compute the version of the whole catalog from the product table.
+     * Creations move the highest ID, deletions the count, and updates and stock moves the sum of the versions.
+     *
+     * @return the catalog version
+     */
+    @Query("""
+            SELECT new com.example.back.product.dto.projection.ProductCatalogVersionDTO(
+                COUNT(p), COALESCE(MAX(p.id), 0), COALESCE(SUM(p.version), 0), COALESCE(MAX(p.updatedAt), 0))
+            FROM Product p
+            """)
+    ProductCatalogVersionDTO findCatalogVersion();
+}
@@ -0,0 +1,185 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.request.ProductBatchUpdateItemDTO;
+import com.example.back.product.dto.response.ProductBatchItemResultDTO;
+import com.example.back.product.dto.response.ProductBatchResultDTO;
+import com.example.back.product.dto.response.ProductBatchStatus;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.event.ProductChangedEvent.ChangeType;
+import com.example.back.product.mapper.ProductMapper;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductBatchProperties;
+import com.example.back.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for batch product operations.
+ * A batch runs in a single transaction: products to update are loaded with one query and written back
+ * as JDBC batches on flush, products to delete are removed with one set-based statement, or one by one
+ * when some of them are still referenced.
+ * Products that cannot be processed are reported individually without failing the batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBatchService {
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ProductBatchProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Apply partial updates to many products.
+     * Each update has the same semantics as a single product update.
+     *
+     * @param updates the updates, one per product
+     * @return the result of each update
+     * @throws ValidationException if the batch is empty or too large
+     */
+    @Transactional
+    public ProductBatchResultDTO updateProducts(List<ProductBatchUpdateItemDTO> updates) {
+        validateBatchSize(updates);
+        log.debug("Updating {} products in batch", updates.size());
+
+        Set<Long> ids = updates.stream()
+                .map(ProductBatchUpdateItemDTO::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        ProductBatchResultDTO result = new ProductBatchResultDTO();
+        List<ProductChangedEvent> events = new ArrayList<>(updates.size());
+
+        for (ProductBatchUpdateItemDTO update : updates) {
+            Long id = update.getId();
+            Product product = products.get(id);
+            if (product == null) {
+                addResult(result, id, ProductBatchStatus.NOT_FOUND, "Product not found");
+                continue;
+            }
+
+            try {
+                productService.validateUpdateRequest(update);
+            } catch (ValidationException e) {
+                addResult(result, id, ProductBatchStatus.INVALID, e.getMessage());
+                continue;
+            }
+
+            if (update.getVersion() != null && !update.getVersion().equals(product.getVersion())) {
+                addResult(result, id, ProductBatchStatus.CONFLICT, properties.getVersionConflictError());
+                continue;
+            }
+
+            Integer previousQuantity = product.getQuantity();
+            productMapper.updateEntityFromDTO(product, update);
+            events.add(new ProductChangedEvent(id, ChangeType.UPDATED, product, previousQuantity));
+            addResult(result, id, ProductBatchStatus.UPDATED, null);
+        }
+
+        // Dirty products are written as JDBC batches when the transaction flushes
+        events.forEach(event -> {
+            productCache.evict(event.getProductId());
+            eventPublisher.publishEvent(event);
+        });
+
+        log.info("Batch update completed: {} updated, {} failed", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Delete many products with a single statement.
+     * When a product is still referenced, the statement fails as a whole and the products are deleted
+     * one by one instead, each in its own transaction, so that only the referenced products are kept.
+     *
+     * @param ids the product IDs
+     * @return the result of each deletion
+     * @throws ValidationException if the batch is empty or too large
+     */
+    public ProductBatchResultDTO deleteProducts(List<Long> ids) {
+        validateBatchSize(ids);
+        log.debug("Deleting {} products in batch", ids.size());
+
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        Set<Long> existingIds = productRepository.findExistingIds(requestedIds);
+        Set<Long> failedIds = new HashSet<>();
+        if (!existingIds.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> delete(existingIds));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch delete of {} products failed, retrying them one by one", existingIds.size(), e);
+                for (Long id : existingIds) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> delete(List.of(id)));
+                    } catch (DataIntegrityViolationException idException) {
+                        log.debug("Product {} is still referenced and was not deleted", id);
+                        failedIds.add(id);
+                    }
+                }
+            }
+        }
+
+        ProductBatchResultDTO result = new ProductBatchResultDTO();
+        for (Long id : requestedIds) {
+            if (failedIds.contains(id)) {
+                addResult(result, id, ProductBatchStatus.FAILED, properties.getReferencedError());
+            } else if (existingIds.contains(id)) {
+                addResult(result, id, ProductBatchStatus.DELETED, null);
+            } else {
+                addResult(result, id, ProductBatchStatus.NOT_FOUND, "Product not found");
+            }
+        }
+
+        log.info("Batch delete completed: {} deleted, {} failed", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Delete products with a single statement and announce their deletion once the transaction commits.
+     * Must be called inside a transaction.
+     *
+     * @param ids the product IDs
+     */
+    private void delete(Collection<Long> ids) {
+        productRepository.deleteAllByIdIn(ids);
+        for (Long id : ids) {
+            productCache.evict(id);
+            eventPublisher.publishEvent(new ProductChangedEvent(id, ChangeType.DELETED, null, null));
+        }
+    }
+
+    private void validateBatchSize(Collection<?> items) {
+        if (items == null || items.isEmpty() || items.size() > properties.getMaxSize()) {
+            throw new ValidationException(String.format(properties.getSizeError(), properties.getMaxSize()));
+        }
+    }
+
+    private void addResult(ProductBatchResultDTO result, Long id, ProductBatchStatus status, String message) {
+        result.getResults().add(new ProductBatchItemResultDTO(id, status, message));
+        if (message == null) {
+            result.setSucceeded(result.getSucceeded() + 1);
+        } else {
+            result.setFailed(result.getFailed() + 1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.back.product.service;
+
+import com.example.back.common.util.AsyncCacheLoader;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of products by ID.
+ * Bounded in size with W-TinyLFU eviction and a time to live, so hot products are served
+ * from memory while cold ones age out. Hit, miss and eviction counters are exposed
+ * as cache metrics under the "products" cache name.
+ * Concurrent misses on the same product share a single load, run on the calling thread by
+ * {@link AsyncCacheLoader}: evicting the product drops a pending load, so a load that overlapped a change
+ * is never served to later readers.
+ * Cached products are detached entities shared between threads and must never be modified.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    private static final String CACHE_NAME = "products";
+
+    private final AsyncCache<Long, Product> cache;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get a product from the cache, loading it on a miss.
+     *
+     * @param id the product ID
+     * @param loader the function loading the product from the database
+     * @return the cached product
+     */
+    public Product get(Long id, Function<Long, Product> loader) {
+        return AsyncCacheLoader.get(cache, id, loader);
+    }
+
+    /**
+     * Get a product from the cache without loading it.
+     *
+     * @param id the product ID
+     * @return the cached product, or null if it is not cached or still loading
+     */
+    public Product getIfPresent(Long id) {
+        CompletableFuture<Product> future = cache.getIfPresent(id);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Evict a product from the cache.
+     * When called inside a transaction, the product is evicted again once the transaction completes
+     * so that a concurrent reader cannot re-populate the cache with the value being replaced.
+     *
+     * @param id the product ID
+     */
+    public void evict(Long id) {
+        log.debug("Evicting product with id: {} from cache", id);
+        cache.synchronous().invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.back.product.service;
+
+import com.example.back.common.dto.ResourceVersion;
+import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.properties.ProductSnapshotProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precomputed serialized form of the whole product list.
+ * The JSON bytes, and their gzip form for large catalogs, are built once per catalog version and
+ * shared by every request, so reading the list does no query, mapping or serialization.
+ * The snapshot is rebuilt in the background after product changes. Bursts of changes are coalesced
+ * into a single rebuild. Stock moves that do not publish an event are caught by comparing the
+ * snapshot version with the current catalog version.
+ * A stale snapshot keeps being served, with its own entity tag, until the rebuild replaces it, so
+ * frequent stock moves never make a request load and serialize the catalog itself.
+ */
+@Component
+@Slf4j
+public class ProductCatalogSnapshot {
+
+    private final ProductSnapshotProperties properties;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private volatile Snapshot current;
+
+    public ProductCatalogSnapshot(ProductSnapshotProperties properties, ProductService productService,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                  PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Build the first snapshot once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        current = build();
+    }
+
+    /**
+     * Schedule a rebuild once a product change is committed.
+     *
+     * @param event the product change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        requestRebuild();
+    }
+
+    /**
+     * Returns the latest snapshot.
+     * When it is older than the given catalog version, a rebuild is scheduled and the stale snapshot is
+     * returned meanwhile. The list is only serialized on the calling thread before the first snapshot exists.
+     *
+     * @param version the current catalog version
+     * @return the latest snapshot, which may be older than the version
+     */
+    public Snapshot get(ResourceVersion version) {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            log.debug("No catalog snapshot yet, serializing the product list for this request");
+            requestRebuild();
+            return new Snapshot(version.getEtag(), version.getLastModified(),
+                    serialize(productService.getAllProducts()), null);
+        }
+        if (!snapshot.getEtag().equals(version.getEtag())) {
+            log.debug("Catalog snapshot is stale, serving it while it is rebuilt");
+            requestRebuild();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Ask for a rebuild. At most one rebuild runs at a time and requests made while it runs
+     * are folded into one more rebuild.
+     */
+    public void requestRebuild() {
+        rebuildRequested.set(true);
+        if (rebuildRunning.compareAndSet(false, true)) {
+            taskExecutor.execute(this::drainRebuilds);
+        }
+    }
+
+    private void drainRebuilds() {
+        try {
+            while (rebuildRequested.getAndSet(false)) {
+                current = build();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the catalog snapshot", e);
+        } finally {
+            rebuildRunning.set(false);
+        }
+        // A request may have arrived between the last check and the release of the flag
+        if (rebuildRequested.get()) {
+            requestRebuild();
+        }
+    }
+
+    private Snapshot build() {
+        long start = System.currentTimeMillis();
+        Snapshot snapshot = readOnlyTransaction.execute(status -> {
+            // Read the version first: a change committed in between makes the snapshot look stale, never fresher
+            ResourceVersion version = productService.getCatalogVersion();
+            byte[] json = serialize(productService.getAllProducts());
+            byte[] gzip = properties.isGzipEnabled() && json.length >= properties.getGzipMinSize() ? gzip(json) : null;
+            return new Snapshot(version.getEtag(), version.getLastModified(), json, gzip);
+        });
+        log.info("Catalog snapshot built in {} ms ({} bytes, {} gzipped)", System.currentTimeMillis() - start,
+                snapshot.getJson().length, snapshot.getGzip() == null ? 0 : snapshot.getGzip().length);
+        return snapshot;
+    }
+
+    private byte[] serialize(List<ProductResponseDTO> products) {
+        try {
+            return objectMapper.writeValueAsBytes(products);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the product list", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serialized product list of one catalog version. The arrays are shared and must not be modified.
+     */
+    @Value
+    public static class Snapshot {
+
+        /**
+         * Entity tag of the catalog version the snapshot was built from.
+         */
+        String etag;
+
+        /**
+         * Last modification timestamp of the catalog version the snapshot was built from.
+         */
+        long lastModified;
+
+        /**
+         * The product list as JSON.
+         */
+        byte[] json;
+
+        /**
+         * The gzip-compressed JSON, or null when the catalog is too small to be worth compressing.
+         */
+        byte[] gzip;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.back.product.service;
+
+import com.example.back.common.dto.ResourceVersion;
+import com.example.back.product.dto.projection.ProductCatalogVersionDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Version of the whole product catalog, used as the entity tag of the product list.
+ * The entity tag is derived from an aggregate of the product table, so every instance computes the same tag
+ * for the same catalog. The aggregate is held in memory and read again from the database on the first request
+ * after a local change, and periodically to see the changes made by other instances, so a matching entity tag
+ * costs no query. A change made on another instance is seen within the configured refresh interval.
+ * The last modification time is when this instance first saw the current aggregate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogVersion {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile ResourceVersion current;
+
+    /**
+     * Get the current catalog version, read from the database if a local change made it stale.
+     *
+     * @return the catalog version
+     */
+    public ResourceVersion current() {
+        // A single caller refreshes, the others keep serving the previous version meanwhile
+        if (stale.compareAndSet(true, false)) {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                stale.set(true);
+                if (current == null) {
+                    throw e;
+                }
+                log.warn("Failed to read the catalog version, serving the previous one", e);
+            }
+        }
+        ResourceVersion version = current;
+        if (version == null) {
+            // The first version is still being read by another caller
+            refresh();
+            version = current;
+        }
+        return version;
+    }
+
+    /**
+     * Read the catalog version from the database, to see the changes made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${product-snapshot.version-refresh-interval}")
+    public synchronized void refresh() {
+        // Refreshes are serialized, so an older aggregate never replaces a newer one
+        ProductCatalogVersionDTO aggregate = productRepository.findCatalogVersion();
+        String etag = "products-" + aggregate.getProductCount() + "-" + aggregate.getMaxId() + "-"
+                + aggregate.getVersionSum() + "-" + aggregate.getMaxUpdatedAt();
+        ResourceVersion previous = current;
+        if (previous == null || !previous.getEtag().equals(etag)) {
+            current = new ResourceVersion(etag, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Mark the version stale once a product change is committed.
+     *
+     * @param event the product change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stale.set(true);
+    }
+
+    /**
+     * Mark the version stale after a stock move written without a product change event.
+     * When called inside a transaction, the version is marked stale once the transaction commits.
+     */
+    public void stockChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.set(true);
+                }
+            });
+        } else {
+            stale.set(true);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.back.product.service;
+
+/**
+ * Strategy generating the codes of new products.
+ * Implementations must return codes that are unique across every running instance
+ * without querying the database.
+ */
+public interface ProductCodeGenerator {
+
+    /**
+     * Generate the code of a new product.
+     *
+     * @return a unique product code
+     */
+    String nextCode();
+}
@@ -0,0 +1,151 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.mapper.ProductMapper;
+import com.example.back.product.model.Product;
+import com.example.back.product.model.ProductExportFormat;
+import com.example.back.product.properties.ProductExportProperties;
+import com.example.back.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Service class for catalog exports.
+ * Products are read from a database cursor and written to the output as they come, and the persistence
+ * context is cleared periodically, so memory use does not depend on the size of the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportService {
+
+    private static final String CSV_HEADER = "code,name,description,image,category,price,quantity,"
+            + "internal_reference,shell_id,inventory_status,rating,created_at,updated_at";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Parse an export format name, ignoring case.
+     *
+     * @param format the format name, or null for the default NDJSON format
+     * @return the export format
+     * @throws ValidationException if the format is not supported
+     */
+    public ProductExportFormat parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return ProductExportFormat.NDJSON;
+        }
+        try {
+            return ProductExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(String.format(properties.getInvalidFormatError(), format));
+        }
+    }
+
+    /**
+     * Write the whole catalog to an output stream.
+     *
+     * @param format the export format
+     * @param output the output stream, left open
+     * @throws IOException if the output cannot be written
+     */
+    @Transactional(readOnly = true)
+    public void export(ProductExportFormat format, OutputStream output) throws IOException {
+        log.debug("Exporting products as {}", format);
+        long count;
+        try (Stream<Product> products = productRepository.streamAll()) {
+            count = format == ProductExportFormat.CSV
+                    ? writeCsv(products.iterator(), output)
+                    : writeNdjson(products.iterator(), output);
+        }
+        log.info("Exported {} products as {}", count, format);
+    }
+
+    private long writeNdjson(Iterator<Product> products, OutputStream output) throws IOException {
+        long count = 0;
+        // Flushed every clear interval only, not after each product
+        SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(output);
+        while (products.hasNext()) {
+            writer.write(productMapper.toResponseDTO(products.next()));
+            if (++count % properties.getClearInterval() == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        // The writer buffers the last products, flush them before the final line break
+        writer.flush();
+        if (count > 0) {
+            output.write('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Product> products, OutputStream output) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (products.hasNext()) {
+            writeCsvRow(writer, products.next());
+            if (++count % properties.getClearInterval() == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, Product product) throws IOException {
+        Object[] values = {
+                product.getCode(), product.getName(), product.getDescription(), product.getImage(),
+                product.getCategory(), product.getPrice(), product.getQuantity(), product.getInternalReference(),
+                product.getShellId(), product.getInventoryStatus(), product.getRating(),
+                product.getCreatedAt(), product.getUpdatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Escape a CSV value, quoting it when it contains a separator, a quote or a line break.
+     */
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.dto.response.ProductImportErrorDTO;
+import com.example.back.product.dto.response.ProductImportReportDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.event.ProductChangedEvent.ChangeType;
+import com.example.back.product.mapper.ProductMapper;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductImportProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk product imports.
+ * Rows are read one at a time from a JSON array or from newline-delimited JSON, so the document is never
+ * held in memory. Valid rows are inserted in batches, each batch in its own transaction and sent to the
+ * database as JDBC batches. A batch that fails is replayed row by row so that only the faulty rows are rejected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final ProductCodeGenerator productCodeGenerator;
+    private final ProductImportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import products from a JSON array or newline-delimited JSON document.
+     *
+     * @param input the document
+     * @return the import report
+     */
+    public ProductImportReportDTO importProducts(InputStream input) {
+        ProductImportReportDTO report = new ProductImportReportDTO();
+        List<ImportRow> batch = new ArrayList<>(properties.getBatchSize());
+        long rowNumber = 0;
+
+        try (MappingIterator<ProductCreateRequestDTO> rows =
+                     objectMapper.readerFor(ProductCreateRequestDTO.class).readValues(input)) {
+            while (true) {
+                rowNumber++;
+                ProductCreateRequestDTO createDTO;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    createDTO = rows.nextValue();
+                } catch (DatabindException e) {
+                    report.setTotalRows(rowNumber);
+                    // The row is well-formed JSON but cannot be mapped, the next rows can still be read
+                    reject(report, rowNumber, String.format(properties.getReadError(), e.getOriginalMessage()));
+                    continue;
+                }
+
+                report.setTotalRows(rowNumber);
+                String error = validate(createDTO);
+                if (error != null) {
+                    reject(report, rowNumber, error);
+                    continue;
+                }
+
+                batch.add(new ImportRow(rowNumber, createDTO));
+                if (batch.size() >= properties.getBatchSize()) {
+                    insertBatch(batch, report);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Malformed JSON, the rest of the document cannot be read
+            reject(report, rowNumber, String.format(properties.getReadError(), e.getOriginalMessage()));
+        } catch (IOException e) {
+            reject(report, rowNumber, String.format(properties.getReadError(), e.getMessage()));
+        }
+
+        if (!batch.isEmpty()) {
+            insertBatch(batch, report);
+        }
+
+        log.info("Product import completed: {} rows, {} imported, {} rejected",
+                report.getTotalRows(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    /**
+     * Validate a row with the bean validation constraints and the rules applied to product creation.
+     *
+     * @param createDTO the row
+     * @return the validation error, or null if the row is valid
+     */
+    private String validate(ProductCreateRequestDTO createDTO) {
+        if (createDTO == null) {
+            return "Row cannot be null";
+        }
+
+        Set<ConstraintViolation<ProductCreateRequestDTO>> violations = validator.validate(createDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        // The row is not null here, so only the business rules can fail
+        try {
+            productService.validateCreateRequest(createDTO);
+            return null;
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Insert a batch of rows in one transaction, falling back to one transaction per row if the batch fails.
+     *
+     * @param batch the rows to insert
+     * @param report the import report
+     */
+    private void insertBatch(List<ImportRow> batch, ProductImportReportDTO report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Product import batch failed, retrying its {} rows one by one", batch.size(), e);
+            for (ImportRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException rowException) {
+                    reject(report, row.getNumber(), NestedExceptionUtils.getMostSpecificCause(rowException).getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Persist rows and flush them as JDBC batches, then detach them to keep the persistence context small.
+     * Must be called inside a transaction.
+     *
+     * @param rows the rows to insert
+     */
+    private void insert(List<ImportRow> rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(properties.getBatchSize());
+
+        List<Product> products = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            Product product = productMapper.toEntity(row.getCreateDTO());
+            product.setCode(productCodeGenerator.nextCode());
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        products.forEach(product -> eventPublisher.publishEvent(
+                new ProductChangedEvent(product.getId(), ChangeType.CREATED, product, null)));
+    }
+
+    private void reject(ProductImportReportDTO report, long rowNumber, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < properties.getMaxReportedErrors()) {
+            report.getErrors().add(new ProductImportErrorDTO(rowNumber, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * A valid row waiting to be inserted, with its position in the document.
+     */
+    @Value
+    private static class ImportRow {
+        long number;
+        ProductCreateRequestDTO createDTO;
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.back.product.service;
+
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductSearchProperties;
+import com.example.back.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over the name, category and description of products.
+ * Terms are kept in a sorted dictionary, so a query term also matches the terms it prefixes and,
+ * for terms of 4 characters or more, the terms within one or two typos sharing its first letter.
+ * Documents are ranked by TF-IDF with a weight per field. Every query term must match.
+ * The index is built when the application starts and then follows product change events.
+ * Searches share a read lock and never touch the database.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int REBUILD_CLEAR_INTERVAL = 1000;
+
+    private static final Comparator<Map.Entry<Long, Float>> RANKING =
+            Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ProductSearchProperties properties;
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+
+    public ProductSearchIndex(ProductSearchProperties properties, ProductRepository productRepository,
+                              EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Index the whole catalog once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                long count = 0;
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    index(product);
+                    if (++count % REBUILD_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        log.info("Product search index built with {} products and {} terms in {} ms",
+                size(), termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Keep the index in line with committed product changes.
+     *
+     * @param event the product change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED || event.getProduct() == null) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    /**
+     * Add a product to the index, replacing its previous version.
+     *
+     * @param product the product
+     */
+    public void index(Product product) {
+        IndexedProduct document = toDocument(product);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            documents.put(document.getId(), document);
+            document.getTermWeights().forEach((term, weight) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.getId(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param productId the product ID
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search products.
+     *
+     * @param query the full-text query
+     * @param category the category to keep, or null
+     * @param inventoryStatus the inventory status to keep, or null
+     * @param page the page number, starting at 0
+     * @param size the page size
+     * @return the IDs of the page, most relevant first, with the total and the facet counts
+     */
+    public SearchHits search(String query, String category, InventoryStatus inventoryStatus, int page, int size) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        Map<String, Long> categoryFacets = new TreeMap<>();
+        Map<String, Long> statusFacets = new TreeMap<>();
+        if (tokens.isEmpty()) {
+            return new SearchHits(Collections.emptyList(), 0, categoryFacets, statusFacets);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = matchToken(token);
+                scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            // Keep the best (page + 1) * size hits only, instead of sorting every match
+            int limit = (int) Math.min(Integer.MAX_VALUE, (long) (page + 1) * size);
+            PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(RANKING.reversed());
+            long total = 0;
+
+            for (Map.Entry<Long, Float> hit : scores.entrySet()) {
+                IndexedProduct document = documents.get(hit.getKey());
+                if (document.getCategory() != null) {
+                    categoryFacets.merge(document.getCategory(), 1L, Long::sum);
+                }
+                if (document.getInventoryStatus() != null) {
+                    statusFacets.merge(document.getInventoryStatus().name(), 1L, Long::sum);
+                }
+                if ((category != null && !category.equals(document.getCategory()))
+                        || (inventoryStatus != null && inventoryStatus != document.getInventoryStatus())) {
+                    continue;
+                }
+
+                total++;
+                top.offer(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            List<Long> ids = ranked.stream()
+                    .skip((long) page * size)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return new SearchHits(ids, total, categoryFacets, statusFacets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed products.
+     *
+     * @return the number of indexed products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score the documents matching a query term exactly, as a prefix or with typos.
+     * A document matched by several expansions keeps its best score.
+     */
+    private Map<Long, Float> matchToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        addTermScores(scores, token, 1.0f);
+
+        NavigableMap<String, Map<Long, Float>> prefixed =
+                postings.subMap(token, false, token + Character.MAX_VALUE, false);
+        int expansions = 0;
+        for (String term : prefixed.keySet()) {
+            if (++expansions > properties.getMaxPrefixExpansions()) {
+                break;
+            }
+            addTermScores(scores, term, properties.getPrefixBoost());
+        }
+
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            String firstLetter = token.substring(0, 1);
+            for (String term : postings.subMap(firstLetter, true, firstLetter + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(term.length() - token.length()) <= maxEdits
+                        && !term.startsWith(token)
+                        && withinDistance(token, term, maxEdits)) {
+                    addTermScores(scores, term, properties.getFuzzyBoost());
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void addTermScores(Map<Long, Float> scores, String term, float boost) {
+        Map<Long, Float> posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        float idf = (float) Math.log(1.0 + (double) documents.size() / posting.size());
+        posting.forEach((id, weight) -> scores.merge(id, weight * idf * boost, Math::max));
+    }
+
+    private static Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Float> larger = smaller == left ? right : left;
+        Map<Long, Float> result = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            Float other = larger.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Check whether two terms are within a Levenshtein distance, giving up as soon as it is exceeded.
+     */
+    private static boolean withinDistance(String source, String target, int maxDistance) {
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= target.length(); j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[target.length()] <= maxDistance;
+    }
+
+    private void removeDocument(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        previous.getTermWeights().keySet().forEach(term -> {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute the weighted term frequencies of a product, each field contributing its own weight per occurrence.
+     */
+    private IndexedProduct toDocument(Product product) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addField(termWeights, product.getName(), properties.getNameWeight());
+        addField(termWeights, product.getCategory(), properties.getCategoryWeight());
+        addField(termWeights, product.getDescription(), properties.getDescriptionWeight());
+        return new IndexedProduct(product.getId(), product.getCategory(), product.getInventoryStatus(), termWeights);
+    }
+
+    private static void addField(Map<String, Float> termWeights, String text, float weight) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        // Normalize by field length so that long descriptions do not outweigh short names
+        float increment = weight / (float) Math.sqrt(tokens.size());
+        tokens.forEach(token -> termWeights.merge(token, increment, Float::sum));
+    }
+
+    /**
+     * Indexed fields of a product.
+     */
+    @Value
+    private static class IndexedProduct {
+        Long id;
+        String category;
+        InventoryStatus inventoryStatus;
+        Map<String, Float> termWeights;
+    }
+
+    /**
+     * Product IDs of a search page with the total number of hits and the facet counts.
+     */
+    @Value
+    public static class SearchHits {
+        List<Long> ids;
+        long total;
+        Map<String, Long> categoryFacets;
+        Map<String, Long> inventoryStatusFacets;
+    }
+}
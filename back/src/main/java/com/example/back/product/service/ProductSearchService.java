@@ -0,0 +1,78 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.dto.response.ProductSearchFacetsDTO;
+import com.example.back.product.dto.response.ProductSearchResponseDTO;
+import com.example.back.product.mapper.ProductMapper;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductSearchProperties;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductSearchIndex.SearchHits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for full-text product search.
+ * Matching, ranking and facet counting are done by the in-memory {@link ProductSearchIndex};
+ * only the products of the requested page are loaded from the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+
+    private final ProductSearchIndex searchIndex;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductSearchProperties properties;
+
+    /**
+     * Search products by name, category and description.
+     *
+     * @param query the full-text query
+     * @param category the category filter, or null
+     * @param inventoryStatus the inventory status filter, or null
+     * @param page the page number starting at 0, or null for the first page
+     * @param size the page size, or null for the default size
+     * @return the page of products, most relevant first, with the total and the facet counts
+     * @throws ValidationException if the query is blank or the page is invalid
+     */
+    @Transactional(readOnly = true)
+    public ProductSearchResponseDTO searchProducts(String query, String category, InventoryStatus inventoryStatus,
+                                                   Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException(properties.getQueryRequiredError());
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? properties.getDefaultPageSize() : size;
+        if (pageNumber < 0 || pageSize < 1 || pageSize > properties.getMaxPageSize()) {
+            throw new ValidationException(String.format(properties.getPageError(), properties.getMaxPageSize()));
+        }
+
+        log.debug("Searching products for query: {}", query);
+        SearchHits hits = searchIndex.search(query, category, inventoryStatus, pageNumber, pageSize);
+
+        // Load the page and restore the ranking order
+        Map<Long, Product> products = productRepository.findAllById(hits.getIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponseDTO> items = hits.getIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toResponseDTO)
+                .toList();
+
+        ProductSearchFacetsDTO facets = new ProductSearchFacetsDTO(
+                hits.getCategoryFacets(), hits.getInventoryStatusFacets());
+        return new ProductSearchResponseDTO(items, hits.getTotal(), pageNumber, pageSize, facets);
+    }
+}
@@ -1,31 +1,47 @@
 package com.example.back.product.service;
 
+import com.example.back.common.dto.ResourceVersion;
 import com.example.back.common.exception.ResourceNotFoundException;
 import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.projection.ProductVersionDTO;
+import com.example.back.product.dto.request.ProductPageRequestDTO;
+import com.example.back.product.dto.response.ProductPageResponseDTO;
 import com.example.back.product.dto.response.ProductResponseDTO;
 import com.example.back.product.dto.request.ProductCreateRequestDTO;
 import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.event.ProductChangedEvent.ChangeType;
 import com.example.back.product.mapper.ProductMapper;
 import com.example.back.product.model.Product;
 import com.example.back.product.properties.ProductMessageProperties;
 import com.example.back.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    private static final String CURSOR_SEPARATOR = ":";
+
     private final ProductMessageProperties properties;
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ProductCodeGenerator productCodeGenerator;
+    private final ProductCatalogVersion productCatalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ProductResponseDTO> getAllProducts() {
@@ -34,6 +50,93 @@ public class ProductService {
         return productMapper.toResponseDTOList(products);
     }
 
+    /**
+     * Retrieves one page of products using keyset pagination.
+     * Only the requested page is loaded, so memory per request stays bounded whatever the catalog size.
+     *
+     * @param pageRequest the filters, page size and cursor
+     * @return the page of products with the cursor of the next page
+     * @throws ValidationException if the page size or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public ProductPageResponseDTO getProductPage(ProductPageRequestDTO pageRequest) {
+        log.debug("Retrieving product page: {}", pageRequest);
+        int size = resolvePageSize(pageRequest.getSize());
+        long[] cursor = decodeCursor(pageRequest.getAfter());
+
+        // Fetch one extra row to know whether a next page exists
+        List<Product> products = productRepository.findPage(
+                pageRequest.getCategory(),
+                pageRequest.getInventoryStatus(),
+                pageRequest.getMinPrice(),
+                pageRequest.getMaxPrice(),
+                pageRequest.getMinRating(),
+                cursor == null ? null : cursor[0],
+                cursor == null ? null : cursor[1],
+                PageRequest.of(0, size + 1));
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return new ProductPageResponseDTO(productMapper.toResponseDTOList(page), page.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Resolves the requested page size, falling back to the default size.
+     *
+     * @param size the requested page size, or null
+     * @return the page size to use
+     * @throws ValidationException if the size is out of bounds
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return properties.getPageDefaultSize();
+        }
+
+        if (size < 1 || size > properties.getPageMaxSize()) {
+            log.warn("Invalid page size: {}", size);
+            throw new ValidationException(String.format(properties.getPageSizeError(), properties.getPageMaxSize()));
+        }
+        return size;
+    }
+
+    /**
+     * Encodes the position of a product as an opaque cursor.
+     *
+     * @param product the last product of a page
+     * @return the cursor
+     */
+    private String encodeCursor(Product product) {
+        String position = product.getCreatedAt() + CURSOR_SEPARATOR + product.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor into its createdAt and id components.
+     *
+     * @param cursor the cursor, or null for the first page
+     * @return the createdAt and id of the last product of the previous page, or null for the first page
+     * @throws ValidationException if the cursor is malformed
+     */
+    private long[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = position.indexOf(CURSOR_SEPARATOR);
+            return new long[]{
+                    Long.parseLong(position.substring(0, separatorIndex)),
+                    Long.parseLong(position.substring(separatorIndex + 1))
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.warn("Invalid pagination cursor: {}", cursor);
+            throw new ValidationException(properties.getInvalidCursorError());
+        }
+    }
+
     @Transactional(readOnly = true)
     public ProductResponseDTO getProductById(Long id) {
         log.debug("Retrieving product with id: {}", id);
@@ -41,30 +144,34 @@ public class ProductService {
         return productMapper.toResponseDTO(findProductById(id));
     }
 
+    /**
+     * Get the version of a product, read from its row so that changes made by other instances are seen.
+     * A cached product older than the row is evicted, so the body served with this version is reloaded.
+     *
+     * @param id the product ID
+     * @return the product version
+     * @throws ResourceNotFoundException if the product is not found
+     */
+    public ResourceVersion getProductVersion(Long id) {
+        Objects.requireNonNull(id, properties.getIdNullError());
+        ProductVersionDTO version = productRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        Product cached = productCache.getIfPresent(id);
+        if (cached != null && !Objects.equals(cached.getVersion(), version.getVersion())) {
+            log.debug("Cached product {} is older than its row, evicting it", id);
+            productCache.evict(id);
+        }
+        long lastModified = version.getUpdatedAt() == null ? -1 : version.getUpdatedAt();
+        return new ResourceVersion("product-" + id + "-" + version.getVersion(), lastModified);
+    }
 
     /**
-     * Generates a unique product code.
-     * 
-     * @return a unique product code
+     * Get the version of the whole catalog, read from the catalog version held in memory.
+     *
+     * @return the catalog version
      */
-    private String generateUniqueCode() {
-        log.debug("Generating unique product code");
-        String code;
-        do {
-            // Generate a code based on UUID to ensure uniqueness
-            String uuid = UUID.randomUUID().toString();
-            // Ensure the UUID is long enough before taking a substring
-            if (uuid.length() >= properties.getUuidMinLength()) {
-                code = properties.getCodePrefix() + uuid.substring(0, properties.getCodeLength()).toUpperCase();
-            } else {
-                // Fallback if UUID is somehow shorter than expected (extremely unlikely)
-                code = properties.getCodePrefix() + uuid.toUpperCase();
-            }
-            log.trace("Generated candidate code: {}", code);
-        } while (productRepository.existsByCode(code));
-
-        log.debug("Unique product code generated: {}", code);
-        return code;
+    public ResourceVersion getCatalogVersion() {
+        return productCatalogVersion.current();
     }
 
     /**
@@ -86,12 +193,13 @@ public class ProductService {
         Product product = productMapper.toEntity(createDTO);
 
         // Generate and set a unique code
-        String uniqueCode = generateUniqueCode();
+        String uniqueCode = productCodeGenerator.nextCode();
         product.setCode(uniqueCode);
 
         log.debug("Saving new product with code: {}", uniqueCode);
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with ID: {} and code: {}", savedProduct.getId(), savedProduct.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), ChangeType.CREATED, savedProduct, null));
         return productMapper.toResponseDTO(savedProduct);
     }
 
@@ -104,7 +212,7 @@ public class ProductService {
      * @throws ValidationException if validation fails
      * @throws NullPointerException if createDTO is null
      */
-    private void validateCreateRequest(ProductCreateRequestDTO createDTO) {
+    void validateCreateRequest(ProductCreateRequestDTO createDTO) {
         log.debug("Validating product create request");
         Objects.requireNonNull(createDTO, properties.getCreateNullError());
 
@@ -124,7 +232,7 @@ public class ProductService {
      * @throws ValidationException if validation fails
      * @throws NullPointerException if updateDTO is null
      */
-    private void validateUpdateRequest(ProductUpdateRequestDTO updateDTO) {
+    void validateUpdateRequest(ProductUpdateRequestDTO updateDTO) {
         log.debug("Validating product update request");
         Objects.requireNonNull(updateDTO, properties.getUpdateNullError());
 
@@ -191,6 +299,7 @@ public class ProductService {
      * @return the updated product as a response DTO
      * @throws ValidationException if validation fails
      * @throws ResourceNotFoundException if the product is not found
+     * @throws ObjectOptimisticLockingFailureException if the product was modified concurrently
      * @throws NullPointerException if id or updateDTO is null
      */
     @Transactional
@@ -203,16 +312,26 @@ public class ProductService {
         validateUpdateRequest(updateDTO);
 
         // Find the product
-        Product product = findProductById(id);
+        // Load the product from the database, cached products are shared and must not be modified
+        Product product = loadProductById(id);
         log.debug("Found product to update: {}", product.getCode());
 
+        // Reject the update if it is based on a stale version of the product
+        if (updateDTO.getVersion() != null && !updateDTO.getVersion().equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+
+        Integer previousQuantity = product.getQuantity();
+
         // Update fields using mapper (code will not be updated as it's ignored in the mapper)
         productMapper.updateEntityFromDTO(product, updateDTO);
 
         // Save the updated product
         log.debug("Saving updated product with code: {}", product.getCode());
         Product updatedProduct = productRepository.save(product);
+        productCache.evict(id);
         log.info("Product updated successfully with ID: {} and code: {}", updatedProduct.getId(), updatedProduct.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ChangeType.UPDATED, updatedProduct, previousQuantity));
 
         return productMapper.toResponseDTO(updatedProduct);
     }
@@ -229,15 +348,18 @@ public class ProductService {
         log.debug("Deleting product with id: {}", id);
         Objects.requireNonNull(id, properties.getIdNullError());
 
-        Product product = findProductById(id);
+        Product product = loadProductById(id);
         log.debug("Found product to delete: {}", product.getCode());
 
         productRepository.delete(product);
+        productCache.evict(id);
         log.info("Product deleted successfully with ID: {} and code: {}", id, product.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ChangeType.DELETED, product, product.getQuantity()));
     }
 
     /**
      * Find a product by ID.
+     * The product is read through the product cache, so the returned entity is shared and must not be modified.
      *
      * @param id the product ID
      * @return the product entity
@@ -247,6 +369,17 @@ public class ProductService {
     public Product findProductById(Long id) {
         Objects.requireNonNull(id, properties.getIdNullError());
         log.debug("Finding product with id: {}", id);
+        return productCache.get(id, this::loadProductById);
+    }
+
+    /**
+     * Load a product by ID from the database, bypassing the product cache.
+     *
+     * @param id the product ID
+     * @return the product entity
+     * @throws ResourceNotFoundException if the product is not found
+     */
+    private Product loadProductById(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Product not found with id: {}", id);
@@ -0,0 +1,357 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.response.ProductSuggestionDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductSuggestProperties;
+import com.example.back.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory autocomplete index over product names and codes.
+ * Keys are stored in a radix trie whose edges carry whole substrings. Every node caches the best
+ * suggestions of its subtree, so a lookup only walks the typed prefix and returns a precomputed list.
+ * A product is reachable from its name, from every word of its name onward, and from its code.
+ * Keys and queries are both reduced to their normalized words joined by single spaces, so punctuation
+ * and repeated spaces in a query do not prevent a match.
+ * Suggestions are ranked by rating, then by stock. When a product changes, only the nodes along its
+ * keys are recomputed. The index is built when the application starts and then follows product change events.
+ */
+@Component
+@Slf4j
+public class ProductSuggestionIndex {
+
+    private static final int REBUILD_CLEAR_INTERVAL = 1000;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt((Entry entry) -> entry.rating).reversed()
+            .thenComparing(Comparator.comparingInt((Entry entry) -> entry.quantity).reversed())
+            .thenComparing(entry -> entry.suggestion.getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(entry -> entry.productId);
+
+    private final ProductSuggestProperties properties;
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public ProductSuggestionIndex(ProductSuggestProperties properties, ProductRepository productRepository,
+                                  EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Index the whole catalog once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                long count = 0;
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    index(product);
+                    if (++count % REBUILD_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        log.info("Product suggestion index built in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Keep the index in line with committed product changes.
+     *
+     * @param event the product change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED || event.getProduct() == null) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    /**
+     * Add a product to the index, replacing its previous version.
+     *
+     * @param product the product
+     */
+    public void index(Product product) {
+        Entry entry = new Entry(product.getId(), keysOf(product),
+                product.getRating() == null ? 0 : product.getRating(),
+                product.getQuantity() == null ? 0 : product.getQuantity(),
+                new ProductSuggestionDTO(product.getCode(), product.getName(), product.getRating(), product.getQuantity()));
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(entry.productId, entry);
+            if (previous != null) {
+                previous.keys.forEach(key -> removeKey(key, previous.productId));
+            }
+            entry.keys.forEach(key -> insertKey(key, entry));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param productId the product ID
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(productId);
+            if (previous != null) {
+                previous.keys.forEach(key -> removeKey(key, productId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the best suggestions for a typed prefix.
+     *
+     * @param query the typed prefix
+     * @param limit the maximum number of suggestions, or null for the default
+     * @return the suggestions, best first
+     * @throws ValidationException if the query is blank or the limit is invalid
+     */
+    public List<ProductSuggestionDTO> suggest(String query, Integer limit) {
+        String prefix = String.join(" ", TextNormalizer.tokenizePrefix(query));
+        if (prefix.isEmpty()) {
+            throw new ValidationException(properties.getQueryRequiredError());
+        }
+        int maxSuggestions = limit == null ? properties.getDefaultLimit() : limit;
+        if (maxSuggestions < 1 || maxSuggestions > properties.getMaxLimit()) {
+            throw new ValidationException(String.format(properties.getLimitError(), properties.getMaxLimit()));
+        }
+
+        List<Entry> top;
+        lock.readLock().lock();
+        try {
+            top = find(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Cached lists are immutable, they can be read outside the lock
+        return top.stream()
+                .limit(maxSuggestions)
+                .map(entry -> entry.suggestion)
+                .toList();
+    }
+
+    /**
+     * Find the cached suggestions of the subtree holding every key starting with a prefix.
+     */
+    private List<Entry> find(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            if (child.label.startsWith(rest)) {
+                // The prefix ends in the middle of this edge
+                return child.top;
+            }
+            if (!rest.startsWith(child.label)) {
+                return Collections.emptyList();
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        return node.top;
+    }
+
+    private void insertKey(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.children.put(rest.charAt(0), child);
+                rest = "";
+            } else {
+                int common = commonPrefixLength(child.label, rest);
+                if (common < child.label.length()) {
+                    // Split the edge, the new middle node has the existing child as only child
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    middle.top = child.top;
+                    node.children.put(middle.label.charAt(0), middle);
+                    child = middle;
+                }
+                rest = rest.substring(common);
+            }
+            node = child;
+            path.add(node);
+        }
+
+        node.productIds.add(entry.productId);
+        recompute(path);
+    }
+
+    private void removeKey(String key, Long productId) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return;
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+            path.add(node);
+        }
+
+        if (!node.productIds.remove(productId)) {
+            return;
+        }
+
+        // Prune empty nodes and merge single-child nodes back into their child, deepest first
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (!current.productIds.isEmpty()) {
+                continue;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+                path.remove(i);
+            } else if (current.children.size() == 1) {
+                Node onlyChild = current.children.values().iterator().next();
+                onlyChild.label = current.label + onlyChild.label;
+                parent.children.put(onlyChild.label.charAt(0), onlyChild);
+                path.set(i, onlyChild);
+            }
+        }
+        recompute(path);
+    }
+
+    /**
+     * Recompute the cached suggestions of the nodes of a path, deepest first,
+     * from the products ending at each node and the cached suggestions of its children.
+     */
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>();
+            node.productIds.forEach(id -> candidates.add(entries.get(id)));
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+
+            Set<Entry> top = new LinkedHashSet<>();
+            candidates.stream()
+                    .filter(Objects::nonNull)
+                    .sorted(RANKING)
+                    .forEach(entry -> {
+                        if (top.size() < properties.getMaxLimit()) {
+                            top.add(entry);
+                        }
+                    });
+            node.top = List.copyOf(top);
+        }
+    }
+
+    /**
+     * Build the keys of a product: its name, the rest of its name from every word, and its code.
+     */
+    private static List<String> keysOf(Product product) {
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> words = TextNormalizer.tokenize(product.getName());
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        String code = String.join(" ", TextNormalizer.tokenize(product.getCode()));
+        if (!code.isEmpty()) {
+            keys.add(code);
+        }
+        return List.copyOf(keys);
+    }
+
+    private static int commonPrefixLength(String left, String right) {
+        int max = Math.min(left.length(), right.length());
+        int i = 0;
+        while (i < max && left.charAt(i) == right.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Radix trie node, reached from its parent through an edge labelled with a substring.
+     */
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new TreeMap<>();
+        private final Set<Long> productIds = new LinkedHashSet<>();
+        private List<Entry> top = Collections.emptyList();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Indexed product with its keys and its precomputed suggestion.
+     * Entries are compared by identity, a changed product gets a new entry.
+     */
+    private static final class Entry {
+        private final Long productId;
+        private final List<String> keys;
+        private final int rating;
+        private final int quantity;
+        private final ProductSuggestionDTO suggestion;
+
+        private Entry(Long productId, List<String> keys, int rating, int quantity, ProductSuggestionDTO suggestion) {
+            this.productId = productId;
+            this.keys = keys;
+            this.rating = rating;
+            this.quantity = quantity;
+            this.suggestion = suggestion;
+        }
+    }
+}
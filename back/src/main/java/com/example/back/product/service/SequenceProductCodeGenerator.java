@@ -0,0 +1,50 @@
+package com.example.back.product.service;
+
+import com.example.back.common.util.SequenceCodeGenerator;
+import com.example.back.product.properties.ProductCodeProperties;
+import com.example.back.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default product code generator, combining a timestamp, the node ID of the instance and a sequence
+ * as described in {@link SequenceCodeGenerator}. Codes are unique as long as every running instance
+ * is configured with its own node ID, and no database query is needed to generate them.
+ * On startup the generator resumes after the highest code already stored, so a restart following a clock
+ * step back or a sequence run ahead of the clock does not issue the same codes again.
+ */
+@Component
+@Slf4j
+public class SequenceProductCodeGenerator implements ProductCodeGenerator {
+
+    private static final int SEED_CANDIDATES = 20;
+
+    private final SequenceCodeGenerator codes;
+
+    public SequenceProductCodeGenerator(ProductCodeProperties properties, ProductRepository productRepository) {
+        this.codes = new SequenceCodeGenerator("Product code", properties.getPrefix(), properties.getNodeId(),
+                this::currentTimeMillis);
+        String resumedAfter = codes.seed(productRepository.findHighestCodes(properties.getPrefix(),
+                PageRequest.of(0, SEED_CANDIDATES)));
+        if (resumedAfter != null) {
+            log.info("Product codes resume after {}", resumedAfter);
+        }
+        log.info("Product codes generated with node ID {}", properties.getNodeId());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextCode() {
+        return codes.next();
+    }
+
+    /**
+     * Get the current time in milliseconds.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
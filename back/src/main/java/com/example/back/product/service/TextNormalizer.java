@@ -0,0 +1,69 @@
+package com.example.back.product.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization shared by the in-memory product indexes.
+ * Text is lower-cased and stripped of accents, so that "Café" and "cafe" match.
+ */
+final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalize a text, keeping its separators.
+     *
+     * @param text the text, may be null
+     * @return the normalized text, empty for a null text
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Split a text into normalized words, ignoring single characters.
+     *
+     * @param text the text, may be null
+     * @return the words in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Split a text being typed into normalized words, ignoring single characters like {@link #tokenize(String)}
+     * except for the last word, which may be the start of a longer one.
+     *
+     * @param text the text, may be null
+     * @return the words in order of appearance
+     */
+    static List<String> tokenizePrefix(String text) {
+        List<String> tokens = new ArrayList<>();
+        String[] words = SEPARATORS.split(normalize(text));
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].length() >= MIN_TOKEN_LENGTH || (i == words.length - 1 && !words[i].isEmpty())) {
+                tokens.add(words[i]);
+            }
+        }
+        return tokens;
+    }
+}
@@ -128,7 +128,7 @@ public class WishlistService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
 
-        return userService.findUserByEmail(email)
+        return userService.findUserByAuthentication(authentication)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 
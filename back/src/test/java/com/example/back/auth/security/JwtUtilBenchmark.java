@@ -0,0 +1,96 @@
+package com.example.back.auth.security;
+
+import com.example.back.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the number of tokens per second the authentication filter can verify
+ * with the previous three-pass parsing and with the single-pass {@link JwtUtil#parseToken(String)}.
+ * Run it from the IDE through the main method, or with
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main JwtUtilBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtUtilBenchmark {
+
+    private static final long TOKEN_VALIDITY = 60L * 60L * 1000;
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    private Key legacyKey;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setEmail("benchmark@example.com");
+        user.setPassword("password");
+        userDetails = new CustomUserDetails(user);
+
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(userDetails);
+
+        legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        legacyToken = Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY))
+                .signWith(legacyKey)
+                .compact();
+    }
+
+    /**
+     * Previous filter behaviour: extractUsername then validateToken, which parsed and verified
+     * the token three times, building a new parser for each pass.
+     */
+    @Benchmark
+    public boolean threePassesWithNewParser() {
+        String username = legacyParse(legacyToken).getSubject();
+        return username.equals(legacyParse(legacyToken).getSubject())
+                && !legacyParse(legacyToken).getExpiration().before(new Date());
+    }
+
+    /**
+     * Current filter behaviour: a single verify-and-decode pass with the shared parser.
+     */
+    @Benchmark
+    public boolean singlePass() {
+        ParsedToken parsedToken = jwtUtil.parseToken(token);
+        return jwtUtil.validateToken(parsedToken, userDetails);
+    }
+
+    private Claims legacyParse(String compactToken) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey)
+                .build()
+                .parseClaimsJws(compactToken)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JwtUtilBenchmark.class.getSimpleName()});
+    }
+}
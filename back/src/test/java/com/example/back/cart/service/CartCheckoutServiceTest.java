@@ -0,0 +1,348 @@
+package com.example.back.cart.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.repository.UserRepository;
+import com.example.back.auth.security.CustomUserDetails;
+import com.example.back.cart.dto.request.AddToCartRequestDTO;
+import com.example.back.cart.dto.response.CartCheckoutResponseDTO;
+import com.example.back.common.exception.DuplicateResourceException;
+import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.model.ReservationStatus;
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.properties.StockReservationProperties;
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.inventory.service.StockReservationService;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderStatus;
+import com.example.back.order.repository.OrderRepository;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.event.PaymentOutcomeEvent;
+import com.example.back.payments.bictorys.service.BictorysPaymentService;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stock reservations and order status of cart checkouts, depending on what is known of the payment outcome,
+ * and once the provider reports it.
+ */
+@SpringBootTest
+class CartCheckoutServiceTest {
+
+    @Autowired
+    private CartCheckoutService checkoutService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private StockReservationProperties reservationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private BictorysPaymentService paymentService;
+
+    @MockitoSpyBean
+    private StockReservationService reservationService;
+
+    private User user;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void createUser() {
+        user = new User();
+        user.setUsername("cart-checkout");
+        user.setFirstname("Checkout");
+        user.setEmail("cart-checkout@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+        authenticate();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM order_status_history WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM shopping_carts WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM shopping_carts WHERE user_id = ?", user.getId());
+        productIds.forEach(productId -> reservationRepository.deleteAll(reservations(productId)));
+        productRepository.deleteAllById(productIds);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void checkoutHoldsTheStockOfEveryLineAndRecordsTheCharge() {
+        Long first = addToCart("CHECKOUT-OK-1", 10, 2);
+        Long second = addToCart("CHECKOUT-OK-2", 5, 5);
+        when(paymentService.createCheckoutPayment(any())).thenReturn(charge());
+
+        CartCheckoutResponseDTO response = checkoutService.checkout(null);
+
+        assertThat(response.getAmount()).isEqualTo(70.0);
+        assertThat(response.getCheckoutUrl()).isEqualTo("https://checkout.test/1");
+        assertThat(stock(first)).isEqualTo(8);
+        assertThat(stock(second)).isZero();
+        assertThat(reservationStatuses(first, second)).containsOnly(ReservationStatus.HELD);
+        Order order = order();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        assertThat(order.getChargeId()).isEqualTo("charge_1");
+    }
+
+    @Test
+    void lineWithoutEnoughStockReservesNoLine() {
+        Long first = addToCart("CHECKOUT-PARTIAL-1", 10, 2);
+        Long second = addToCart("CHECKOUT-PARTIAL-2", 5, 5);
+        Product sold = productRepository.findById(second).orElseThrow();
+        sold.setQuantity(4);
+        productRepository.save(sold);
+
+        assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(ValidationException.class);
+
+        assertThat(stock(first)).isEqualTo(10);
+        assertThat(stock(second)).isEqualTo(4);
+        assertThat(reservationStatuses(first, second)).isEmpty();
+        assertThat(orderRepository.findAll()).noneMatch(order -> order.getUserId().equals(user.getId()));
+        verify(paymentService, never()).createCheckoutPayment(any());
+    }
+
+    @Test
+    void unavailableProviderReleasesTheStockAndFailsTheOrder() {
+        Long productId = addToCart("CHECKOUT-UNAVAILABLE", 10, 3);
+        when(paymentService.createCheckoutPayment(any())).thenThrow(new PaymentUnavailableException("unavailable"));
+
+        assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(PaymentUnavailableException.class);
+
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThat(reservationStatuses(productId)).containsOnly(ReservationStatus.RELEASED);
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PAYMENT_FAILED);
+    }
+
+    @Test
+    void failedReleaseDoesNotStopTheOthers() {
+        Long first = addToCart("CHECKOUT-RELEASE-1", 10, 3);
+        Long second = addToCart("CHECKOUT-RELEASE-2", 10, 4);
+        when(paymentService.createCheckoutPayment(any())).thenThrow(new PaymentUnavailableException("unavailable"));
+        doThrow(new IllegalStateException("database unavailable")).doCallRealMethod()
+                .when(reservationService).release(any());
+
+        assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(PaymentUnavailableException.class);
+
+        // The reservation that failed to release is left to the expiry sweep
+        assertThat(stock(first)).isEqualTo(7);
+        assertThat(reservationStatuses(first)).containsOnly(ReservationStatus.HELD);
+        assertThat(stock(second)).isEqualTo(10);
+        assertThat(reservationStatuses(second)).containsOnly(ReservationStatus.RELEASED);
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PAYMENT_FAILED);
+    }
+
+    @Test
+    void unknownPaymentOutcomeKeepsTheStockHeld() {
+        Long productId = addToCart("CHECKOUT-UNKNOWN", 10, 3);
+        when(paymentService.createCheckoutPayment(any())).thenThrow(new PaymentException("read timed out"));
+
+        assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(PaymentException.class)
+                .isNotInstanceOf(PaymentUnavailableException.class);
+
+        assertThat(stock(productId)).isEqualTo(7);
+        assertThat(reservationStatuses(productId)).containsOnly(ReservationStatus.HELD);
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+
+        // The charge may exist, so the cart cannot be checked out again until the reservations expire
+        assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void secondCheckoutIsRefusedWhileTheFirstAwaitsItsCharge() throws Exception {
+        Long productId = addToCart("CHECKOUT-DOUBLE", 10, 1);
+        CountDownLatch called = new CountDownLatch(1);
+        CountDownLatch provider = new CountDownLatch(1);
+        when(paymentService.createCheckoutPayment(any())).thenAnswer(invocation -> {
+            called.countDown();
+            provider.await(10, TimeUnit.SECONDS);
+            return charge();
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CartCheckoutResponseDTO> first = executor.submit(() -> {
+                authenticate();
+                try {
+                    return checkoutService.checkout(null);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> checkoutService.checkout(null)).isInstanceOf(DuplicateResourceException.class);
+
+            provider.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).getCheckoutUrl()).isEqualTo("https://checkout.test/1");
+        } finally {
+            provider.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(stock(productId)).isEqualTo(9);
+    }
+
+    @Test
+    void chargedReservationsAreHeldUntilThePaymentOutcome() {
+        Long productId = addToCart("CHECKOUT-CHARGED", 10, 1);
+        when(paymentService.createCheckoutPayment(any())).thenReturn(charge());
+
+        CartCheckoutResponseDTO response = checkoutService.checkout(null);
+
+        long checkoutHoldEnd = Instant.now().toEpochMilli() + reservationProperties.getHoldDuration().toMillis();
+        assertThat(response.getReservationsExpireAt()).isGreaterThan(checkoutHoldEnd);
+        assertThat(reservations(productId)).extracting(StockReservation::getExpiresAt)
+                .containsOnly(response.getReservationsExpireAt());
+    }
+
+    @Test
+    void paidOutcomeConfirmsTheStockAndRemovesThePaidItemsFromTheCart() {
+        Long first = addToCart("CHECKOUT-PAID-1", 10, 2);
+        Long second = addToCart("CHECKOUT-PAID-2", 5, 1);
+        when(paymentService.createCheckoutPayment(any())).thenReturn(charge());
+        String orderNumber = checkoutService.checkout(null).getOrderNumber();
+
+        checkoutService.onPaymentOutcome(new PaymentOutcomeEvent("charge_1", orderNumber, true, "success"));
+
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(reservationStatuses(first, second)).containsOnly(ReservationStatus.CONFIRMED);
+        assertThat(stock(first)).isEqualTo(8);
+        assertThat(stock(second)).isEqualTo(4);
+        assertThat(cartService.getCurrentUserCart().getItems()).isEmpty();
+
+        // A repeated or late outcome changes nothing
+        checkoutService.onPaymentOutcome(new PaymentOutcomeEvent("charge_1", orderNumber, false, "cancelled"));
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(stock(first)).isEqualTo(8);
+    }
+
+    @Test
+    void failedOutcomeReleasesTheStockAndFailsTheOrder() {
+        Long productId = addToCart("CHECKOUT-DECLINED", 10, 3);
+        when(paymentService.createCheckoutPayment(any())).thenReturn(charge());
+        String orderNumber = checkoutService.checkout(null).getOrderNumber();
+
+        checkoutService.onPaymentOutcome(new PaymentOutcomeEvent("charge_1", orderNumber, false, "failed"));
+
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PAYMENT_FAILED);
+        assertThat(reservationStatuses(productId)).containsOnly(ReservationStatus.RELEASED);
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThat(cartService.getCurrentUserCart().getItems()).hasSize(1);
+    }
+
+    @Test
+    void outcomeOfAnotherChargeIsIgnored() {
+        Long productId = addToCart("CHECKOUT-OTHER-CHARGE", 10, 3);
+        when(paymentService.createCheckoutPayment(any())).thenReturn(charge());
+        String orderNumber = checkoutService.checkout(null).getOrderNumber();
+
+        checkoutService.onPaymentOutcome(new PaymentOutcomeEvent("charge_other", orderNumber, true, "success"));
+
+        assertThat(order().getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        assertThat(reservationStatuses(productId)).containsOnly(ReservationStatus.HELD);
+    }
+
+    private Long addToCart(String code, int stock, int quantity) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName("Product " + code);
+        product.setPrice(10.0);
+        product.setQuantity(stock);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        Long productId = productRepository.save(product).getId();
+        productIds.add(productId);
+        cartService.addToCart(new AddToCartRequestDTO(productId, quantity));
+        return productId;
+    }
+
+    private Order order() {
+        List<Order> orders = orderRepository.findAll().stream()
+                .filter(order -> order.getUserId().equals(user.getId()))
+                .toList();
+        assertThat(orders).hasSize(1);
+        return orders.get(0);
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+    private List<ReservationStatus> reservationStatuses(Long... productIds) {
+        List<ReservationStatus> statuses = new ArrayList<>();
+        for (Long productId : productIds) {
+            reservations(productId).forEach(reservation -> statuses.add(reservation.getStatus()));
+        }
+        return statuses;
+    }
+
+    private List<StockReservation> reservations(Long productId) {
+        return reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getProductId().equals(productId))
+                .toList();
+    }
+
+    private void authenticate() {
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static BictorysPaymentResponseDTO charge() {
+        return BictorysPaymentResponseDTO.builder()
+                .chargeId("charge_1")
+                .status("pending")
+                .checkoutUrl("https://checkout.test/1")
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.back.cart.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.repository.UserRepository;
+import com.example.back.auth.security.CustomUserDetails;
+import com.example.back.cart.dto.request.AddToCartRequestDTO;
+import com.example.back.cart.dto.request.CartItemRequestDTO;
+import com.example.back.cart.model.ShoppingCart;
+import com.example.back.cart.repository.CartItemRepository;
+import com.example.back.cart.repository.ShoppingCartRepository;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent first adds of the same product must all land on a single cart line.
+ */
+@SpringBootTest
+class CartServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PRODUCTS = 20;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShoppingCartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    private User user;
+    private Long cartId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCart() {
+        user = new User();
+        user.setUsername("concurrent-add");
+        user.setFirstname("Concurrent");
+        user.setEmail("concurrent-add@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        ShoppingCart cart = new ShoppingCart();
+        cart.setUser(user);
+        cartId = cartRepository.save(cart).getId();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setCode("CONCURRENT-" + i);
+            product.setName("Concurrent product " + i);
+            product.setPrice(10.0);
+            product.setQuantity(1_000);
+            product.setInventoryStatus(InventoryStatus.INSTOCK);
+            productIds.add(productRepository.save(product).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartItemRepository.deleteAllInBatch(cartItemRepository.findAll().stream()
+                .filter(item -> item.getCart().getId().equals(cartId))
+                .toList());
+        cartRepository.deleteById(cartId);
+        productRepository.deleteAllById(productIds);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void concurrentFirstAddsOfSameProductAreMerged() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Long productId : productIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    results.add(executor.submit(() -> {
+                        authenticate();
+                        try {
+                            start.await();
+                            cartService.addToCart(new AddToCartRequestDTO(productId, 1));
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                    // Fails the test if any add surfaced the unique constraint violation
+                    result.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        authenticate();
+        try {
+            Map<Long, Integer> quantities = cartService.getCurrentUserCart().getItems().stream()
+                    .collect(Collectors.toMap(CartItemRequestDTO::getProductId, CartItemRequestDTO::getQuantity));
+            assertThat(quantities).hasSize(PRODUCTS);
+            assertThat(quantities.values()).containsOnly(THREADS);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void authenticate() {
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
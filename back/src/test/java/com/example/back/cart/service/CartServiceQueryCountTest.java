@@ -0,0 +1,133 @@
+package com.example.back.cart.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.repository.UserRepository;
+import com.example.back.auth.security.CustomUserDetails;
+import com.example.back.cart.dto.response.CartResponseDTO;
+import com.example.back.cart.model.CartItem;
+import com.example.back.cart.model.ShoppingCart;
+import com.example.back.cart.repository.CartItemRepository;
+import com.example.back.cart.repository.ShoppingCartRepository;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression test guarding against N+1 selects when a cart is rendered, through the flat projection
+ * used by the cart endpoints and through the fetch join loading the cart entities.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CartServiceQueryCountTest {
+
+    private static final int CART_SIZE = 50;
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShoppingCartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void renderingCartIssuesConstantNumberOfStatements() {
+        User user = createCart("query-count");
+
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        Statistics statistics = clearedStatistics();
+
+        CartResponseDTO response = cartService.getCurrentUserCart();
+
+        assertThat(response.getItems()).hasSize(CART_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void loadingCartEntitiesIssuesSingleStatement() {
+        User user = createCart("fetch-join");
+
+        Statistics statistics = clearedStatistics();
+
+        ShoppingCart cart = cartRepository.findWithItemsByUser(user).orElseThrow();
+
+        // Touch every lazy association the cart mapper reads
+        assertThat(cart.getUser().getEmail()).isEqualTo("fetch-join@example.com");
+        assertThat(cart.getItems()).hasSize(CART_SIZE);
+        cart.getItems().values().forEach(item -> assertThat(item.getProduct().getName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Create a user with a cart of {@link #CART_SIZE} products, then detach everything.
+     */
+    private User createCart(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFirstname("Query");
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        ShoppingCart cart = new ShoppingCart();
+        cart.setUser(user);
+        cartRepository.save(cart);
+
+        for (int i = 0; i < CART_SIZE; i++) {
+            Product product = new Product();
+            product.setCode(username.toUpperCase() + "-" + i);
+            product.setName("Product " + i);
+            product.setPrice(10.0);
+            product.setQuantity(100);
+            product.setInventoryStatus(InventoryStatus.INSTOCK);
+            productRepository.save(product);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            cartItemRepository.save(item);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
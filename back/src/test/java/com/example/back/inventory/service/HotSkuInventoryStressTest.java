@@ -0,0 +1,114 @@
+package com.example.back.inventory.service;
+
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Multi-threaded stress test checking that stock is never oversold, comparing the throughput
+ * of the striped in-memory counter with the conditional decrement of the product row.
+ */
+@SpringBootTest
+class HotSkuInventoryStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuInventoryStressTest.class);
+
+    private static final int THREADS = 16;
+    private static final int STRIPES = 16;
+    private static final int COUNTER_STOCK = 500_000;
+    private static final int DATABASE_STOCK = 5_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void stripedCounterNeverOversells() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(STRIPES, COUNTER_STOCK);
+
+        long successes = hammer("striped counter", () -> counter.tryAcquire(1));
+
+        assertThat(successes).isEqualTo(COUNTER_STOCK);
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void databaseDecrementNeverOversells() throws Exception {
+        Product product = new Product();
+        product.setCode("HOT-STRESS");
+        product.setName("Hot stress product");
+        product.setPrice(10.0);
+        product.setQuantity(DATABASE_STOCK);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        Long productId = productRepository.save(product).getId();
+
+        try {
+            long successes = hammer("database decrement", () -> Integer.valueOf(1).equals(transactionTemplate.execute(
+                    status -> productRepository.decrementStock(productId, 1, Instant.now().toEpochMilli()))));
+
+            assertThat(successes).isEqualTo(DATABASE_STOCK);
+            assertThat(productRepository.findById(productId).orElseThrow().getQuantity()).isZero();
+        } finally {
+            productRepository.deleteById(productId);
+        }
+    }
+
+    /**
+     * Run an acquisition concurrently on every thread until the stock is exhausted.
+     *
+     * @param name the name of the measured path
+     * @param acquire the acquisition, returning false once no stock is left
+     * @return the total number of successful acquisitions
+     */
+    private long hammer(String name, BooleanSupplier acquire) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long acquired = 0;
+                    while (acquire.getAsBoolean()) {
+                        acquired++;
+                    }
+                    return acquired;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            long successes = 0;
+            for (Future<Long> result : results) {
+                successes += result.get();
+            }
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+            log.info("{}: {} acquisitions on {} threads in {} s, {} ops/sec",
+                    name, successes, THREADS, String.format("%.3f", seconds), Math.round(successes / seconds));
+            return successes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
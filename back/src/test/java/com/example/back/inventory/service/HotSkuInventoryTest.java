@@ -0,0 +1,168 @@
+package com.example.back.inventory.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.model.ReservationStatus;
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.properties.HotSkuProperties;
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reservations of a hot product through the reservation service: the counter is seeded from the database,
+ * gives stock back on rollback and release, follows product updates, and reconciles the database with
+ * the counter without overselling.
+ * Reconciliation is triggered by the test, the scheduled run is pushed out of its way.
+ */
+@SpringBootTest(properties = "hot-sku.reconcile-interval=1h")
+class HotSkuInventoryTest {
+
+    private static final int STOCK = 100;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 150;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private HotSkuInventory hotSkuInventory;
+
+    @Autowired
+    private HotSkuProperties properties;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void createHotProduct() {
+        Product product = new Product();
+        product.setCode("HOT-SKU");
+        product.setName("Hot product");
+        product.setPrice(10.0);
+        product.setQuantity(STOCK);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        productId = productRepository.save(product).getId();
+        properties.getProductIds().add(productId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll(reservationRepository.findByReference("hot-sku"));
+        properties.getProductIds().remove(productId);
+        productService.deleteProduct(productId);
+    }
+
+    @Test
+    void counterIsSeededFromTheDatabaseAndGivesStockBackOnRollback() {
+        assertThat(hotSkuInventory.isHot(productId)).isTrue();
+        assertThat(hotSkuInventory.available(productId)).isEqualTo(STOCK);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationService.reserve(productId, 5, "hot-sku");
+            assertThat(hotSkuInventory.available(productId)).isEqualTo(STOCK - 5);
+            status.setRollbackOnly();
+        });
+
+        assertThat(hotSkuInventory.available(productId)).isEqualTo(STOCK);
+        assertThat(reservationRepository.findByReference("hot-sku")).isEmpty();
+        hotSkuInventory.reconcile();
+        assertThat(quantity()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversellAndReconcileWithTheDatabase() throws Exception {
+        List<Callable<Boolean>> reservations = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            reservations.add(() -> {
+                try {
+                    reservationService.reserve(productId, 1, "hot-sku");
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                }
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int reserved = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(reservations)) {
+                if (result.get()) {
+                    reserved++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(reserved).isEqualTo(STOCK);
+        assertThat(hotSkuInventory.available(productId)).isZero();
+        // The database lags behind the counter until the next reconciliation
+        assertThat(quantity()).isEqualTo(STOCK);
+
+        hotSkuInventory.reconcile();
+        assertThat(quantity()).isZero();
+
+        // A released reservation is given back to the counter, then to the database
+        StockReservation released = reservationRepository.findByReference("hot-sku").get(0);
+        reservationService.release(released.getId());
+        assertThat(hotSkuInventory.available(productId)).isEqualTo(1);
+        hotSkuInventory.reconcile();
+        assertThat(quantity()).isEqualTo(1);
+        assertThat(reservationRepository.findByReference("hot-sku"))
+                .filteredOn(reservation -> reservation.getStatus() == ReservationStatus.HELD)
+                .hasSize(STOCK - 1);
+    }
+
+    @Test
+    void productUpdateAdjustsTheCounter() {
+        reservationService.reserve(productId, 10, "hot-sku");
+        hotSkuInventory.reconcile();
+        assertThat(quantity()).isEqualTo(STOCK - 10);
+
+        ProductUpdateRequestDTO restock = new ProductUpdateRequestDTO();
+        restock.setQuantity(STOCK - 10 + 50);
+        productService.updateProduct(productId, restock);
+
+        assertThat(hotSkuInventory.available(productId)).isEqualTo(STOCK - 10 + 50);
+        reservationService.reserve(productId, STOCK - 10 + 50, "hot-sku");
+        assertThatThrownBy(() -> reservationService.reserve(productId, 1, "hot-sku"))
+                .isInstanceOf(ValidationException.class);
+        hotSkuInventory.reconcile();
+        assertThat(quantity()).isZero();
+        assertThat(hotSkuInventory.available(productId)).isZero();
+    }
+
+    private int quantity() {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+}
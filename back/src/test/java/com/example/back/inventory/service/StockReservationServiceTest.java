@@ -0,0 +1,183 @@
+package com.example.back.inventory.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.inventory.model.ReservationStatus;
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lifecycle of stock reservations: every reservation gives its stock back at most once,
+ * whichever of the release, the confirmation and the expiry sweep wins.
+ */
+@SpringBootTest
+class StockReservationServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        productIds.forEach(productId -> reservationRepository.deleteAll(reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getProductId().equals(productId))
+                .toList()));
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void confirmedReservationKeepsStockOut() {
+        Long productId = createProduct("RES-CONFIRM", 10);
+
+        StockReservation reservation = reservationService.reserve(productId, 4, "confirm");
+        reservationService.confirm(reservation.getId());
+        reservationService.release(reservation.getId());
+
+        assertThat(stock(productId)).isEqualTo(6);
+        assertThat(status(reservation)).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThatThrownBy(() -> reservationService.confirm(reservation.getId()))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void reservationBeyondStockIsRefused() {
+        Long productId = createProduct("RES-REFUSE", 3);
+
+        assertThatThrownBy(() -> reservationService.reserve(productId, 4, "refuse"))
+                .isInstanceOf(ValidationException.class);
+
+        assertThat(stock(productId)).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentReleasesGiveStockBackOnce() throws Exception {
+        Long productId = createProduct("RES-RELEASE", 10);
+        StockReservation reservation = reservationService.reserve(productId, 4, "release");
+
+        runConcurrently(() -> {
+            reservationService.release(reservation.getId());
+            return true;
+        });
+
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThat(status(reservation)).isEqualTo(ReservationStatus.RELEASED);
+    }
+
+    @Test
+    void expiredReservationGivesStockBackOnceAndCannotBeConfirmed() throws Exception {
+        Long productId = createProduct("RES-EXPIRE", 10);
+        StockReservation reservation = reservationService.reserve(productId, 4, "expire");
+        StockReservation stored = reservationRepository.findById(reservation.getId()).orElseThrow();
+        stored.setExpiresAt(Instant.now().toEpochMilli() - 1);
+        reservationRepository.save(stored);
+
+        assertThatThrownBy(() -> reservationService.confirm(reservation.getId()))
+                .isInstanceOf(ValidationException.class);
+
+        // The expiry sweep races with an explicit release
+        runConcurrently(() -> {
+            reservationService.releaseExpired();
+            reservationService.release(reservation.getId());
+            return true;
+        });
+
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThat(status(reservation)).isIn(ReservationStatus.EXPIRED, ReservationStatus.RELEASED);
+    }
+
+    @Test
+    void concurrentReservationsNeverDriveStockBelowZero() throws Exception {
+        int stock = 50;
+        Long productId = createProduct("RES-CONCURRENT", stock);
+
+        long reserved = runConcurrently(() -> {
+            long acquired = 0;
+            while (true) {
+                try {
+                    reservationService.reserve(productId, 1, "concurrent");
+                    acquired++;
+                } catch (ValidationException e) {
+                    return acquired;
+                }
+            }
+        });
+
+        assertThat(reserved).isEqualTo(stock);
+        assertThat(stock(productId)).isZero();
+    }
+
+    /**
+     * Run a task on every thread at once.
+     *
+     * @return the sum of the numeric results, or the number of threads for boolean results
+     */
+    private long runConcurrently(Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<?> result : results) {
+                Object value = result.get();
+                total += value instanceof Number number ? number.longValue() : 1;
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createProduct(String code, int quantity) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName(code);
+        product.setPrice(10.0);
+        product.setQuantity(quantity);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        Long productId = productRepository.save(product).getId();
+        productIds.add(productId);
+        return productId;
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+    private ReservationStatus status(StockReservation reservation) {
+        return reservationRepository.findById(reservation.getId()).orElseThrow().getStatus();
+    }
+}
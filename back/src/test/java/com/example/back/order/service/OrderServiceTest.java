@@ -0,0 +1,201 @@
+package com.example.back.order.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.repository.UserRepository;
+import com.example.back.auth.security.CustomUserDetails;
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.order.dto.projection.OrderSummaryDTO;
+import com.example.back.order.dto.response.OrderPageResponseDTO;
+import com.example.back.order.dto.response.OrderResponseDTO;
+import com.example.back.order.dto.response.OrderStatusHistoryResponseDTO;
+import com.example.back.order.model.Order;
+import com.example.back.order.model.OrderLine;
+import com.example.back.order.model.OrderStatus;
+import com.example.back.order.properties.OrderProperties;
+import com.example.back.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creation, keyset paging, status transitions and history of orders.
+ */
+@SpringBootTest
+class OrderServiceTest {
+
+    private static final int ORDERS = 25;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = new User();
+        user.setUsername("order-service");
+        user.setFirstname("Order");
+        user.setEmail("order-service@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM order_status_history WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void createdOrderSnapshotsItsLines() {
+        Order order = createOrder(line(1L, 12.5, 2), line(2L, 3.0, 5));
+
+        OrderResponseDTO found = orderService.getCurrentUserOrder(order.getOrderNumber());
+
+        assertThat(found.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        assertThat(found.getTotalAmount()).isEqualTo(40.0);
+        assertThat(found.getItemCount()).isEqualTo(7);
+        assertThat(found.getLines()).extracting("productId").containsExactly(1L, 2L);
+        assertThat(found.getLines()).extracting("lineTotal").containsExactly(25.0, 15.0);
+        assertThat(orderService.getCurrentUserOrdersByReference(order.getOrderNumber()))
+                .extracting(OrderResponseDTO::getOrderNumber).containsExactly(order.getOrderNumber());
+        assertThatThrownBy(() -> orderService.getCurrentUserOrder("ORD-UNKNOWN"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void chargeIsFoundByReference() {
+        Order order = createOrder(line(1L, 10.0, 1));
+        orderService.recordCharge(order.getId(), "charge_order", "https://checkout.test/order");
+
+        List<OrderResponseDTO> found = orderService.getCurrentUserOrdersByReference("charge_order");
+
+        assertThat(found).extracting(OrderResponseDTO::getOrderNumber).containsExactly(order.getOrderNumber());
+        assertThat(found.get(0).getCheckoutUrl()).isEqualTo("https://checkout.test/order");
+    }
+
+    @Test
+    void keysetPagesCoverEveryOrderOnceMostRecentFirst() {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            created.add(createOrder(line(1L, 10.0, 1)).getOrderNumber());
+        }
+
+        List<OrderSummaryDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPageResponseDTO page = orderService.getCurrentUserOrders(cursor, 10);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            assertThat(page.getHasNext()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        // Orders created within the same millisecond are ordered by id
+        Collections.reverse(created);
+        assertThat(seen).extracting(OrderSummaryDTO::getOrderNumber).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void invalidPageIsRejected() {
+        assertThatThrownBy(() -> orderService.getCurrentUserOrders(null, 0)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> orderService.getCurrentUserOrders(null, properties.getPageMaxSize() + 1))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> orderService.getCurrentUserOrders("not-a-cursor", 10))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void statusChangesOnlyFromTheExpectedStatusAndAreRecorded() {
+        Order order = createOrder(line(1L, 10.0, 1));
+
+        orderService.changeStatus(order.getId(), OrderStatus.PENDING_PAYMENT, OrderStatus.PAID, null);
+        assertThatThrownBy(() -> orderService.changeStatus(order.getId(), OrderStatus.PENDING_PAYMENT,
+                OrderStatus.PAYMENT_FAILED, "late failure")).isInstanceOf(ValidationException.class);
+        orderService.changeStatus(order.getId(), OrderStatus.PAID, OrderStatus.CANCELLED, "refunded");
+
+        assertThat(orderService.getCurrentUserOrder(order.getOrderNumber()).getStatus())
+                .isEqualTo(OrderStatus.CANCELLED);
+        List<OrderStatusHistoryResponseDTO> history = orderService.getCurrentUserOrderHistory(order.getOrderNumber());
+        assertThat(history).extracting(OrderStatusHistoryResponseDTO::getStatus)
+                .containsExactly(OrderStatus.PENDING_PAYMENT, OrderStatus.PAID, OrderStatus.CANCELLED);
+        assertThat(history).extracting(OrderStatusHistoryResponseDTO::getNote).containsExactly(null, null, "refunded");
+    }
+
+    @Test
+    void orderNumbersAreUniqueAndResumeAfterTheHighestStoredOne() {
+        Set<String> numbers = new HashSet<>();
+        String last = null;
+        for (int i = 0; i < 10_000; i++) {
+            String number = orderService.nextOrderNumber();
+            assertThat(number).startsWith(properties.getNumberPrefix());
+            if (last != null) {
+                assertThat(value(number)).isGreaterThan(value(last));
+            }
+            numbers.add(number);
+            last = number;
+        }
+        assertThat(numbers).hasSize(10_000);
+
+        // A restarted instance resumes after the stored numbers, even if its sequence ran ahead of the clock
+        String stored = createOrder(line(1L, 10.0, 1)).getOrderNumber();
+        String next = new SequenceOrderNumberGenerator(properties, orderRepository).nextOrderNumber();
+        assertThat(value(next)).isGreaterThan(value(stored));
+    }
+
+    private Order createOrder(OrderLine... lines) {
+        return orderService.createPendingOrder(user.getId(), orderService.nextOrderNumber(), "XOF", List.of(lines));
+    }
+
+    private static OrderLine line(Long productId, double unitPrice, int quantity) {
+        OrderLine line = new OrderLine();
+        line.setProductId(productId);
+        line.setProductCode("CODE-" + productId);
+        line.setProductName("Product " + productId);
+        line.setUnitPrice(unitPrice);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private long value(String orderNumber) {
+        return Long.parseLong(orderNumber.substring(properties.getNumberPrefix().length()), Character.MAX_RADIX);
+    }
+}
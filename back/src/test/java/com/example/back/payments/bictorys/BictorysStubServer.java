@@ -0,0 +1,122 @@
+package com.example.back.payments.bictorys;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Local stub of the Bictorys charge endpoint, answering with a status chosen per call number
+ * after an optional latency. Calls can also be held until the test releases them.
+ */
+public class BictorysStubServer {
+
+    public static final String CHARGE_ID = "charge_1";
+    private static final String CHARGE = "{\"chargeId\":\"" + CHARGE_ID
+            + "\",\"status\":\"pending\",\"checkoutUrl\":\"https://checkout.test/1\"}";
+
+    private final HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile IntUnaryOperator behaviour = call -> 202;
+    private volatile long latencyMillis;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private BictorysStubServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Start a stub on a free local port, answering 202 with a charge to every call.
+     *
+     * @return the started stub
+     */
+    public static BictorysStubServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            BictorysStubServer stub = new BictorysStubServer(server);
+            server.createContext("/charges", stub::handle);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void stop() {
+        gate.countDown();
+        server.stop(0);
+    }
+
+    /**
+     * Answer 202 again, without latency, and forget the calls received so far.
+     */
+    public void reset() {
+        gate.countDown();
+        calls.set(0);
+        behaviour = call -> 202;
+        latencyMillis = 0;
+        gate = new CountDownLatch(0);
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/charges";
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    /**
+     * Choose the status of each call from its number, starting at 1.
+     */
+    public void behaviour(IntUnaryOperator behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    public void latency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Hold every call until {@link #release()} is called.
+     */
+    public void hold() {
+        gate = new CountDownLatch(1);
+    }
+
+    public void release() {
+        gate.countDown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int call = calls.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            gate.await(30, TimeUnit.SECONDS);
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int status = behaviour.applyAsInt(call);
+        byte[] body = (status == 202 ? CHARGE : "{}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // The client gave up on a slow response
+        }
+    }
+}
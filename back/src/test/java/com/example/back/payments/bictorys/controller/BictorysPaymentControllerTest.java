@@ -0,0 +1,245 @@
+package com.example.back.payments.bictorys.controller;
+
+import com.example.back.payments.bictorys.BictorysStubServer;
+import com.example.back.payments.bictorys.dto.response.AsyncCheckoutResponseDTO;
+import com.example.back.payments.bictorys.event.PaymentOutcomeEvent;
+import com.example.back.payments.bictorys.model.CheckoutStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status codes, polling and events of the checkout endpoints, run against a local stub of the payment provider.
+ * The asynchronous checkout runs with a single worker and a queue of one checkout.
+ * Payment notifications are only accepted with the shared webhook secret.
+ */
+@SpringBootTest(properties = {
+        "async-checkout.workers=1",
+        "async-checkout.queue-capacity=1",
+        "bictorys-payment-provider.webhook-secret=webhook-test-secret"
+})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class BictorysPaymentControllerTest {
+
+    private static final BictorysStubServer STUB = BictorysStubServer.start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void providerUrl(DynamicPropertyRegistry registry) {
+        registry.add("bictorys-payment-provider.api-url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void resetStub() {
+        STUB.reset();
+    }
+
+    @Test
+    void repeatedKeyIsReplayedWithoutCallingTheProvider() throws Exception {
+        mockMvc.perform(checkout("controller-replay", 5000))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andExpect(jsonPath("$.chargeId").value(BictorysStubServer.CHARGE_ID));
+
+        mockMvc.perform(checkout("controller-replay", 5000))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.chargeId").value(BictorysStubServer.CHARGE_ID));
+
+        assertThat(STUB.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyIsUnprocessable() throws Exception {
+        mockMvc.perform(checkout("controller-reused", 5000)).andExpect(status().isOk());
+
+        mockMvc.perform(checkout("controller-reused", 7000)).andExpect(status().isUnprocessableEntity());
+
+        assertThat(STUB.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncCheckoutIsPolledUntilCompleted() throws Exception {
+        String id = submitAsync(null);
+
+        mockMvc.perform(get("/api/payments/checkout/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.checkoutId").value(id));
+        AsyncCheckoutResponseDTO checkout = awaitFinished(id);
+
+        assertThat(checkout.getStatus()).isEqualTo(CheckoutStatus.COMPLETED);
+        assertThat(checkout.getCheckoutUrl()).isEqualTo("https://checkout.test/1");
+        assertThat(checkout.getPayment().getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+    }
+
+    @Test
+    void unknownAsyncCheckoutIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/payments/checkout/unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void fullQueueRejectsAsyncCheckoutWithServiceUnavailable() throws Exception {
+        STUB.hold();
+        String processing = submitAsync(null);
+        awaitCalls(1);
+        String queued = submitAsync(null);
+
+        mockMvc.perform(asyncCheckout(null)).andExpect(status().isServiceUnavailable());
+
+        STUB.release();
+        assertThat(awaitFinished(processing).getStatus()).isEqualTo(CheckoutStatus.COMPLETED);
+        assertThat(awaitFinished(queued).getStatus()).isEqualTo(CheckoutStatus.COMPLETED);
+    }
+
+    @Test
+    void invalidIdempotencyKeyRejectsAsyncCheckoutWithBadRequest() throws Exception {
+        mockMvc.perform(asyncCheckout("k".repeat(256))).andExpect(status().isBadRequest());
+
+        assertThat(STUB.calls()).isZero();
+    }
+
+    @Test
+    void asyncCheckoutIsFollowedThroughServerSentEvents() throws Exception {
+        STUB.hold();
+        String id = submitAsync("controller-sse");
+
+        MvcResult events = mockMvc.perform(get("/api/payments/checkout/" + id + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        STUB.release();
+        awaitFinished(id);
+
+        String stream = awaitEvent(events, "COMPLETED");
+        assertThat(stream).startsWith("event:checkout");
+        assertThat(stream).contains("\"checkoutId\":\"" + id + "\"");
+        assertThat(stream.indexOf("COMPLETED")).isGreaterThan(stream.indexOf("PROCESSING"));
+
+        // A finished checkout sends its final state to a late subscriber
+        MvcResult late = mockMvc.perform(get("/api/payments/checkout/" + id + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(awaitEvent(late, "COMPLETED")).doesNotContain("PROCESSING");
+    }
+
+    @Test
+    void webhookWithoutTheSecretIsUnauthorized() throws Exception {
+        mockMvc.perform(webhook(null, "success")).andExpect(status().isUnauthorized());
+        mockMvc.perform(webhook("wrong-secret", "success")).andExpect(status().isUnauthorized());
+
+        assertThat(events.stream(PaymentOutcomeEvent.class)).isEmpty();
+    }
+
+    @Test
+    void webhookPublishesFinalOutcomesOnly() throws Exception {
+        mockMvc.perform(webhook("webhook-test-secret", "pending")).andExpect(status().isOk());
+        mockMvc.perform(webhook("webhook-test-secret", "SUCCESS")).andExpect(status().isOk());
+        mockMvc.perform(webhook("webhook-test-secret", "cancelled")).andExpect(status().isOk());
+
+        assertThat(events.stream(PaymentOutcomeEvent.class))
+                .extracting(PaymentOutcomeEvent::isPaid, PaymentOutcomeEvent::getMerchantReference)
+                .containsExactly(tuple(true, "ORD-WEBHOOK"), tuple(false, "ORD-WEBHOOK"));
+    }
+
+    private String submitAsync(String idempotencyKey) throws Exception {
+        String body = mockMvc.perform(asyncCheckout(idempotencyKey))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, AsyncCheckoutResponseDTO.class).getCheckoutId();
+    }
+
+    private AsyncCheckoutResponseDTO awaitFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/payments/checkout/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            AsyncCheckoutResponseDTO checkout = objectMapper.readValue(body, AsyncCheckoutResponseDTO.class);
+            if (checkout.getStatus().isTerminal() || System.currentTimeMillis() > deadline) {
+                return checkout;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String awaitEvent(MvcResult events, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!events.getResponse().getContentAsString().contains(text) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String stream = events.getResponse().getContentAsString();
+        assertThat(stream).contains(text);
+        return stream;
+    }
+
+    private static void awaitCalls(int calls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (STUB.calls() < calls && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(STUB.calls()).isEqualTo(calls);
+    }
+
+    private static MockHttpServletRequestBuilder asyncCheckout(String idempotencyKey) {
+        MockHttpServletRequestBuilder builder = post("/api/payments/checkout/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":5000,\"currency\":\"XOF\"}");
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+        return builder;
+    }
+
+    private static MockHttpServletRequestBuilder webhook(String secret, String status) {
+        MockHttpServletRequestBuilder builder = post("/api/payments/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"charge_webhook\",\"status\":\"" + status
+                        + "\",\"merchantReference\":\"ORD-WEBHOOK\"}");
+        if (secret != null) {
+            builder.header("X-Secret-Key", secret);
+        }
+        return builder;
+    }
+
+    private static MockHttpServletRequestBuilder checkout(String idempotencyKey, int amount) {
+        return post("/api/payments/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .content("{\"amount\":" + amount + ",\"currency\":\"XOF\"}");
+    }
+}
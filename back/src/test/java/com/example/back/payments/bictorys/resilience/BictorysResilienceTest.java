@@ -0,0 +1,190 @@
+package com.example.back.payments.bictorys.resilience;
+
+import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.payments.bictorys.BictorysStubServer;
+import com.example.back.payments.bictorys.config.BictorysBulkheadInterceptor;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.properties.BictorysPaymentProviderProperties;
+import com.example.back.payments.bictorys.properties.BictorysResilienceProperties;
+import com.example.back.payments.bictorys.service.BictorysPaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the Bictorys payment service against a local stub server simulating latency and error storms.
+ */
+class BictorysResilienceTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(200);
+
+    private BictorysStubServer stub;
+
+    private BictorysResilience resilience;
+    private BictorysPaymentProviderProperties providerProperties;
+    private BictorysPaymentService paymentService;
+
+    @BeforeEach
+    void startStub() {
+        stub = BictorysStubServer.start();
+
+        BictorysResilienceProperties resilienceProperties = new BictorysResilienceProperties();
+        resilienceProperties.setFailureThreshold(FAILURE_THRESHOLD);
+        resilienceProperties.setOpenDuration(OPEN_DURATION);
+        resilienceProperties.setHalfOpenMaxCalls(1);
+        resilienceProperties.setMaxAttempts(3);
+        resilienceProperties.setInitialBackoff(Duration.ofMillis(10));
+        resilienceProperties.setMaxBackoff(Duration.ofMillis(50));
+        resilienceProperties.setBackoffMultiplier(2.0);
+        resilienceProperties.setCircuitOpenError("circuit open");
+        resilience = new BictorysResilience(resilienceProperties, new SimpleMeterRegistry());
+
+        providerProperties = new BictorysPaymentProviderProperties();
+        providerProperties.setApiUrl(stub.url());
+        providerProperties.setPublicApiKey("X-Api-Key");
+        providerProperties.setPublicApiValue("test");
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newHttpClient());
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        paymentService = new BictorysPaymentService(new RestTemplate(requestFactory), providerProperties, resilience);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void retriesUnavailableProviderUntilItRecovers() {
+        stub.behaviour(call -> call <= 2 ? 503 : 202);
+
+        BictorysPaymentResponseDTO response = paymentService.createCheckoutPayment(request());
+
+        assertThat(response.getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+        assertThat(stub.calls()).isEqualTo(3);
+        assertThat(resilience.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void doesNotRetryNonIdempotentFailures() {
+        stub.behaviour(call -> 500);
+
+        assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRetryTimedOutCalls() {
+        stub.behaviour(call -> 202);
+        stub.latency(READ_TIMEOUT.toMillis() * 3);
+
+        assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void unreachableProviderIsReportedAsUnavailable() {
+        stub.stop();
+
+        assertThatThrownBy(() -> paymentService.createCheckoutPayment(request()))
+                .isInstanceOf(PaymentUnavailableException.class);
+    }
+
+    @Test
+    void errorStormOpensCircuitAndFailsFast() {
+        stub.behaviour(call -> 500);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+        }
+        assertThat(resilience.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertThatThrownBy(() -> paymentService.createCheckoutPayment(request()))
+                    .isInstanceOf(PaymentUnavailableException.class);
+        }
+
+        assertThat(stub.calls()).isEqualTo(FAILURE_THRESHOLD);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(OPEN_DURATION);
+    }
+
+    @Test
+    void halfOpenProbeClosesCircuitWhenProviderRecovers() throws InterruptedException {
+        stub.behaviour(call -> 500);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+        }
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        stub.behaviour(call -> 202);
+
+        BictorysPaymentResponseDTO response = paymentService.createCheckoutPayment(request());
+
+        assertThat(response.getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+        assertThat(resilience.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedHalfOpenProbeReopensCircuit() throws InterruptedException {
+        stub.behaviour(call -> 500);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+        }
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        assertThatThrownBy(() -> paymentService.createCheckoutPayment(request())).isInstanceOf(PaymentException.class);
+
+        assertThat(stub.calls()).isEqualTo(FAILURE_THRESHOLD + 1);
+        assertThat(resilience.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void fullBulkheadRejectsCallAsUnavailableWithoutReachingProvider() throws Exception {
+        stub.behaviour(call -> 202);
+        stub.latency(READ_TIMEOUT.toMillis() / 2);
+        RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(HttpClient.newHttpClient()));
+        restTemplate.getInterceptors().add(new BictorysBulkheadInterceptor(1, Duration.ofMillis(10), "bulkhead full",
+                new SimpleMeterRegistry()));
+        BictorysPaymentService bulkheadService = new BictorysPaymentService(restTemplate, providerProperties, resilience);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<BictorysPaymentResponseDTO> inFlight = executor.submit(() -> bulkheadService.createCheckoutPayment(request()));
+            while (stub.calls() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThatThrownBy(() -> bulkheadService.createCheckoutPayment(request()))
+                    .isInstanceOf(PaymentUnavailableException.class)
+                    .hasMessage("bulkhead full");
+
+            assertThat(inFlight.get(5, TimeUnit.SECONDS).getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+            assertThat(stub.calls()).isEqualTo(1);
+            assertThat(resilience.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static BictorysPaymentRequestDTO request() {
+        return BictorysPaymentRequestDTO.builder().amount(5000.0).currency("XOF").build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.PaymentUnavailableException;
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.AsyncCheckoutResponseDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.model.CheckoutStatus;
+import com.example.back.payments.bictorys.properties.AsyncCheckoutProperties;
+import com.example.back.payments.bictorys.properties.CheckoutIdempotencyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retention of asynchronous checkouts, the messages of failed checkouts, and isolation of the workers
+ * from event delivery.
+ */
+class AsyncCheckoutServiceTest {
+
+    private static final int CHECKOUTS = 4;
+
+    private final BictorysPaymentService paymentService = mock(BictorysPaymentService.class);
+    private final CountDownLatch provider = new CountDownLatch(1);
+    private AsyncCheckoutService checkoutService;
+
+    @AfterEach
+    void shutdown() {
+        provider.countDown();
+        checkoutService.shutdown();
+    }
+
+    @Test
+    void unfinishedCheckoutsAreNeverEvicted() throws Exception {
+        checkoutService = createService(1, Runnable::run);
+        holdProvider();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            ids.add(checkoutService.submit(request(), null).getCheckoutId());
+        }
+        // Give the cache time to apply its size bound, which must not touch unfinished checkouts
+        Thread.sleep(200);
+        for (String id : ids) {
+            assertThat(checkoutService.getCheckout(id).getStatus()).isIn(CheckoutStatus.PENDING, CheckoutStatus.PROCESSING);
+        }
+
+        provider.countDown();
+
+        // Once finished, checkouts are bounded again; any of them may be the one kept
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((unfinished(ids) > 0 || retained(ids) > 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(unfinished(ids)).isZero();
+        assertThat(retained(ids)).isEqualTo(1);
+    }
+
+    @Test
+    void invalidIdempotencyKeyIsRejectedBeforeQueuing() {
+        checkoutService = createService(10, Runnable::run);
+
+        assertThatThrownBy(() -> checkoutService.submit(request(), " ")).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> checkoutService.submit(request(), "k".repeat(256)))
+                .isInstanceOf(ValidationException.class);
+
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void failedCheckoutExposesAFixedMessageOnly() throws Exception {
+        checkoutService = createService(10, Runnable::run);
+        when(paymentService.createCheckoutPayment(any()))
+                .thenThrow(new PaymentUnavailableException("Bictorys injoignable: Connection refused: 10.0.0.7:443"))
+                .thenThrow(new PaymentException("Erreur lors de la création du paiement: 401 {\"secret\":\"sk_live\"}"))
+                .thenThrow(new IllegalStateException("Pool exhausted"));
+
+        assertThat(failedCheckoutError()).isEqualTo("provider unavailable");
+        assertThat(failedCheckoutError()).isEqualTo("payment failed");
+        assertThat(failedCheckoutError()).isEqualTo("checkout failed");
+    }
+
+    @Test
+    void stuckEventDeliveryDoesNotHoldTheWorker() throws Exception {
+        CountDownLatch delivery = new CountDownLatch(1);
+        checkoutService = createService(10, task -> new Thread(() -> {
+            try {
+                delivery.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }).start());
+        holdProvider();
+
+        String id = checkoutService.submit(request(), null).getCheckoutId();
+        checkoutService.subscribe(id);
+        provider.countDown();
+
+        // Every event of the subscriber is stuck, the worker still finishes the checkout
+        awaitStatus(id, CheckoutStatus.COMPLETED);
+        delivery.countDown();
+    }
+
+    private AsyncCheckoutService createService(long maximumResults, TaskExecutor eventExecutor) {
+        AsyncCheckoutProperties properties = new AsyncCheckoutProperties();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(CHECKOUTS);
+        properties.setResultTtl(Duration.ofHours(1));
+        properties.setMaximumResults(maximumResults);
+        properties.setSseTimeout(Duration.ofMinutes(1));
+        properties.setQueueFullError("queue full");
+        properties.setUnavailableError("provider unavailable");
+        properties.setPaymentError("payment failed");
+        properties.setKeyReusedError("key reused");
+        properties.setUnexpectedError("checkout failed");
+
+        CheckoutIdempotencyProperties idempotencyProperties = new CheckoutIdempotencyProperties();
+        idempotencyProperties.setTtl(Duration.ofHours(1));
+        idempotencyProperties.setPendingTimeout(Duration.ofMinutes(1));
+        idempotencyProperties.setPendingPollInterval(Duration.ofMillis(10));
+        idempotencyProperties.setMaximumSize(100);
+        idempotencyProperties.setMaxKeyLength(255);
+        idempotencyProperties.setKeyInvalidError("Idempotency-Key must be between 1 and %d characters");
+        idempotencyProperties.setKeyReusedError("Idempotency-Key was already used with a different request");
+        CheckoutIdempotencyService idempotencyService = new CheckoutIdempotencyService(idempotencyProperties,
+                new InMemoryCheckoutIdempotencyStore(idempotencyProperties, new SimpleMeterRegistry()),
+                new ObjectMapper());
+
+        return new AsyncCheckoutService(properties, paymentService, idempotencyService, eventExecutor,
+                new SimpleMeterRegistry());
+    }
+
+    private void holdProvider() {
+        when(paymentService.createCheckoutPayment(any())).thenAnswer(invocation -> {
+            provider.await(10, TimeUnit.SECONDS);
+            return BictorysPaymentResponseDTO.builder().chargeId("charge_1").checkoutUrl("https://checkout.test/1").build();
+        });
+    }
+
+    private void awaitStatus(String id, CheckoutStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        AsyncCheckoutResponseDTO checkout = checkoutService.getCheckout(id);
+        while (checkout.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            checkout = checkoutService.getCheckout(id);
+        }
+        assertThat(checkout.getStatus()).isEqualTo(status);
+    }
+
+    private String failedCheckoutError() throws InterruptedException {
+        String id = checkoutService.submit(request(), null).getCheckoutId();
+        awaitStatus(id, CheckoutStatus.FAILED);
+        return checkoutService.getCheckout(id).getError();
+    }
+
+    private long unfinished(List<String> ids) {
+        return ids.stream().filter(id -> {
+            try {
+                return !checkoutService.getCheckout(id).getStatus().isTerminal();
+            } catch (ResourceNotFoundException e) {
+                return false;
+            }
+        }).count();
+    }
+
+    private long retained(List<String> ids) {
+        return ids.stream().filter(id -> {
+            try {
+                checkoutService.getCheckout(id);
+                return true;
+            } catch (ResourceNotFoundException e) {
+                return false;
+            }
+        }).count();
+    }
+
+    private static BictorysPaymentRequestDTO request() {
+        return BictorysPaymentRequestDTO.builder().amount(5000.0).currency("XOF").build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.common.exception.IdempotencyKeyReuseException;
+import com.example.back.common.exception.PaymentException;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.payments.bictorys.BictorysStubServer;
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.properties.BictorysPaymentProviderProperties;
+import com.example.back.payments.bictorys.properties.BictorysResilienceProperties;
+import com.example.back.payments.bictorys.properties.CheckoutIdempotencyProperties;
+import com.example.back.payments.bictorys.resilience.BictorysResilience;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyService.IdempotentResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs idempotent checkouts against a local stub of the payment provider and counts the calls it receives.
+ */
+class CheckoutIdempotencyServiceTest {
+
+    private static final int THREADS = 8;
+
+    private BictorysStubServer stub;
+    private BictorysPaymentService paymentService;
+    private CheckoutIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        stub = BictorysStubServer.start();
+
+        BictorysResilienceProperties resilienceProperties = new BictorysResilienceProperties();
+        resilienceProperties.setFailureThreshold(10);
+        resilienceProperties.setOpenDuration(Duration.ofSeconds(30));
+        resilienceProperties.setHalfOpenMaxCalls(1);
+        resilienceProperties.setMaxAttempts(1);
+        resilienceProperties.setInitialBackoff(Duration.ofMillis(10));
+        resilienceProperties.setMaxBackoff(Duration.ofMillis(10));
+        resilienceProperties.setBackoffMultiplier(2.0);
+        resilienceProperties.setCircuitOpenError("circuit open");
+
+        BictorysPaymentProviderProperties providerProperties = new BictorysPaymentProviderProperties();
+        providerProperties.setApiUrl(stub.url());
+        providerProperties.setPublicApiKey("X-Api-Key");
+        providerProperties.setPublicApiValue("test");
+        paymentService = new BictorysPaymentService(
+                new RestTemplate(new JdkClientHttpRequestFactory(HttpClient.newHttpClient())), providerProperties,
+                new BictorysResilience(resilienceProperties, new SimpleMeterRegistry()));
+
+        CheckoutIdempotencyProperties properties = new CheckoutIdempotencyProperties();
+        properties.setTtl(Duration.ofHours(1));
+        properties.setPendingTimeout(Duration.ofMinutes(1));
+        properties.setPendingPollInterval(Duration.ofMillis(10));
+        properties.setMaximumSize(100);
+        properties.setMaxKeyLength(255);
+        properties.setKeyInvalidError("Idempotency-Key must be between 1 and %d characters");
+        properties.setKeyReusedError("Idempotency-Key was already used with a different request");
+        idempotencyService = new CheckoutIdempotencyService(properties,
+                new InMemoryCheckoutIdempotencyStore(properties, new SimpleMeterRegistry()), new ObjectMapper());
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void concurrentDuplicatesCallTheProviderOnce() throws Exception {
+        stub.hold();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotentResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                Callable<IdempotentResult> task = () -> {
+                    start.await();
+                    return checkout("key-concurrent", request(5000.0));
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            // Let the duplicates pile up behind the call held by the provider
+            Thread.sleep(200);
+            stub.release();
+
+            int originals = 0;
+            for (Future<IdempotentResult> future : futures) {
+                IdempotentResult result = future.get(10, TimeUnit.SECONDS);
+                assertThat(result.getResponse().getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+                if (!result.isReplayed()) {
+                    originals++;
+                }
+            }
+            assertThat(originals).isEqualTo(1);
+            assertThat(stub.calls()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void replayReturnsTheStoredResponseWithoutCallingTheProvider() {
+        IdempotentResult first = checkout("key-replay", request(5000.0));
+        IdempotentResult replay = checkout("key-replay", request(5000.0));
+
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(replay.isReplayed()).isTrue();
+        assertThat(replay.getResponse()).isEqualTo(first.getResponse());
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyIsRejected() {
+        checkout("key-reused", request(5000.0));
+
+        assertThatThrownBy(() -> checkout("key-reused", request(7000.0)))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void failedCheckoutCanBeRetriedWithTheSameKey() {
+        stub.behaviour(call -> call == 1 ? 500 : 202);
+
+        assertThatThrownBy(() -> checkout("key-retry", request(5000.0))).isInstanceOf(PaymentException.class);
+        IdempotentResult retry = checkout("key-retry", request(5000.0));
+
+        assertThat(retry.isReplayed()).isFalse();
+        assertThat(retry.getResponse().getChargeId()).isEqualTo(BictorysStubServer.CHARGE_ID);
+        assertThat(stub.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void blankOrTooLongKeyIsRejectedBeforeAnyCall() {
+        assertThatThrownBy(() -> checkout(" ", request(5000.0))).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> checkout("k".repeat(256), request(5000.0))).isInstanceOf(ValidationException.class);
+        assertThat(stub.calls()).isZero();
+    }
+
+    private IdempotentResult checkout(String key, BictorysPaymentRequestDTO request) {
+        return idempotencyService.execute(key, request, () -> paymentService.createCheckoutPayment(request));
+    }
+
+    private static BictorysPaymentRequestDTO request(double amount) {
+        return BictorysPaymentRequestDTO.builder().amount(amount).currency("XOF").build();
+    }
+}
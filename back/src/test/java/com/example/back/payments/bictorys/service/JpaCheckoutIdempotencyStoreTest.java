@@ -0,0 +1,166 @@
+package com.example.back.payments.bictorys.service;
+
+import com.example.back.payments.bictorys.dto.request.BictorysPaymentRequestDTO;
+import com.example.back.payments.bictorys.dto.response.BictorysPaymentResponseDTO;
+import com.example.back.payments.bictorys.model.CheckoutIdempotencyRecord;
+import com.example.back.payments.bictorys.repository.CheckoutIdempotencyRepository;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyService.IdempotentResult;
+import com.example.back.payments.bictorys.service.CheckoutIdempotencyStore.StoredCheckout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkouts stored in the database survive the round trip, expire with their key and are run once per key
+ * across instances.
+ */
+@SpringBootTest(properties = "checkout-idempotency.store=jdbc")
+class JpaCheckoutIdempotencyStoreTest {
+
+    private static final List<String> KEYS = List.of("jpa-round-trip", "jpa-first-wins", "jpa-expired",
+            "jpa-expired-checkout", "jpa-pending");
+
+    @Autowired
+    private CheckoutIdempotencyStore store;
+
+    @Autowired
+    private JpaCheckoutIdempotencyStore jpaStore;
+
+    @Autowired
+    private CheckoutIdempotencyRepository repository;
+
+    @Autowired
+    private CheckoutIdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAllById(KEYS);
+    }
+
+    @Test
+    void jdbcStoreIsSelected() {
+        assertThat(store).isInstanceOf(JpaCheckoutIdempotencyStore.class);
+    }
+
+    @Test
+    void storedCheckoutRoundTrips() {
+        BictorysPaymentResponseDTO response = BictorysPaymentResponseDTO.builder()
+                .chargeId("charge_jpa")
+                .status("pending")
+                .checkoutUrl("https://checkout.test/jpa")
+                .amount(5000.0)
+                .currency("XOF")
+                .paymentReference("ORD-1")
+                .build();
+
+        assertThat(store.claim("jpa-round-trip", "fingerprint")).isTrue();
+        assertThat(store.find("jpa-round-trip").orElseThrow().isPending()).isTrue();
+        store.complete("jpa-round-trip", new StoredCheckout("fingerprint", response));
+
+        StoredCheckout stored = store.find("jpa-round-trip").orElseThrow();
+        assertThat(stored.getFingerprint()).isEqualTo("fingerprint");
+        assertThat(stored.getResponse()).isEqualTo(response);
+        assertThat(store.find("jpa-unknown")).isEmpty();
+    }
+
+    @Test
+    void firstStoredCheckoutWins() {
+        assertThat(store.claim("jpa-first-wins", "first")).isTrue();
+        assertThat(store.claim("jpa-first-wins", "second")).isFalse();
+        store.complete("jpa-first-wins", new StoredCheckout("first", response("charge_first")));
+
+        StoredCheckout kept = store.complete("jpa-first-wins", new StoredCheckout("second", response("charge_second")));
+
+        assertThat(kept.getResponse().getChargeId()).isEqualTo("charge_first");
+        StoredCheckout stored = store.find("jpa-first-wins").orElseThrow();
+        assertThat(stored.getFingerprint()).isEqualTo("first");
+        assertThat(stored.getResponse().getChargeId()).isEqualTo("charge_first");
+    }
+
+    @Test
+    void expiredKeyIsNotFoundAndPurged() {
+        long now = Instant.now().toEpochMilli();
+        repository.save(new CheckoutIdempotencyRecord("jpa-expired", "fingerprint", "{\"chargeId\":\"charge_old\"}",
+                now - 2000, now - 1000));
+
+        assertThat(store.find("jpa-expired")).isEmpty();
+
+        jpaStore.purgeExpired();
+        assertThat(repository.existsById("jpa-expired")).isFalse();
+    }
+
+    @Test
+    void expiredUnpurgedKeyIsCheckedOutOnce() {
+        long now = Instant.now().toEpochMilli();
+        repository.save(new CheckoutIdempotencyRecord("jpa-expired-checkout", "fingerprint",
+                "{\"chargeId\":\"charge_old\"}", now - 2000, now - 1000));
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<BictorysPaymentResponseDTO> checkout = () -> response("charge_" + calls.incrementAndGet());
+
+        IdempotentResult first = idempotencyService.execute("jpa-expired-checkout", request(), checkout);
+        IdempotentResult second = idempotencyService.execute("jpa-expired-checkout", request(), checkout);
+
+        assertThat(calls).hasValue(1);
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(second.isReplayed()).isTrue();
+        assertThat(second.getResponse().getChargeId()).isEqualTo("charge_1");
+    }
+
+    @Test
+    void keyPendingOnAnotherInstanceIsAwaited() throws Exception {
+        // Claimed by another instance, still calling the provider
+        BictorysPaymentRequestDTO request = request();
+        long now = Instant.now().toEpochMilli();
+        repository.save(new CheckoutIdempotencyRecord("jpa-pending", fingerprint(request), null, now,
+                now + 60_000));
+        AtomicInteger calls = new AtomicInteger();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotentResult> waiting = executor.submit(() -> idempotencyService.execute("jpa-pending", request,
+                    () -> response("charge_" + calls.incrementAndGet())));
+            Thread.sleep(200);
+            assertThat(waiting).isNotDone();
+
+            store.complete("jpa-pending", new StoredCheckout(fingerprint(request), response("charge_other")));
+
+            IdempotentResult result = waiting.get(10, TimeUnit.SECONDS);
+            assertThat(result.isReplayed()).isTrue();
+            assertThat(result.getResponse().getChargeId()).isEqualTo("charge_other");
+            assertThat(calls).hasValue(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String fingerprint(BictorysPaymentRequestDTO request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request)));
+    }
+
+    private static BictorysPaymentRequestDTO request() {
+        return BictorysPaymentRequestDTO.builder().amount(5000.0).currency("XOF").paymentReference("ORD-JPA").build();
+    }
+
+    private static BictorysPaymentResponseDTO response(String chargeId) {
+        return BictorysPaymentResponseDTO.builder().chargeId(chargeId).status("pending").build();
+    }
+}
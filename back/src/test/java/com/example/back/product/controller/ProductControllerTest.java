@@ -0,0 +1,232 @@
+package com.example.back.product.controller;
+
+import com.example.back.inventory.model.StockReservation;
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.inventory.service.StockReservationService;
+import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductCatalogVersion;
+import com.example.back.product.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and compressed requests on the product list: a matching entity tag is answered without any query,
+ * product changes as well as stock moves give the list a new entity tag once the snapshot is rebuilt,
+ * changes written by another instance are seen from the database, and the list is only gzipped when the
+ * Accept-Encoding header allows it, each encoding with its own entity tag.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "product-snapshot.gzip-min-size=0"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductCatalogVersion catalogVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll(reservationRepository.findAll().stream()
+                .filter(reservation -> productIds.contains(reservation.getProductId()))
+                .toList());
+        productIds.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModifiedWithoutQuery() throws Exception {
+        String etag = getProducts(null, 200);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void productChangeGivesTheListANewEtag() throws Exception {
+        String etag = getProducts(null, 200);
+
+        createProduct("Etag lamp", 5);
+
+        String newEtag = awaitNewEtag(etag);
+        getProducts(newEtag, 304);
+    }
+
+    @Test
+    void stockMoveGivesTheListANewEtag() throws Exception {
+        Long productId = createProduct("Etag kettle", 5);
+        String etag = getProducts(null, 200);
+
+        StockReservation reservation = reservationService.reserve(productId, 2, "etag");
+        String newEtag = awaitNewEtag(etag);
+
+        reservationService.release(reservation.getId());
+        awaitNewEtag(newEtag);
+    }
+
+    @Test
+    void changeWrittenByAnotherInstanceIsSeenFromTheDatabase() throws Exception {
+        Long productId = createProduct("Etag teapot", 5);
+        String listEtag = getProducts(null, 200);
+        String productEtag = mockMvc.perform(get("/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Written without any event or cache eviction on this instance
+        jdbcTemplate.update("UPDATE products SET quantity = 7, version = version + 1 WHERE id = ?", productId);
+
+        mockMvc.perform(get("/products/{id}", productId).header(HttpHeaders.IF_NONE_MATCH, productEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(7));
+        catalogVersion.refresh();
+        awaitNewEtag(listEtag);
+    }
+
+    @Test
+    void listIsGzippedOnlyWhenAccepted() throws Exception {
+        assertThat(contentEncoding("gzip, deflate, br")).isEqualTo("gzip");
+        assertThat(contentEncoding("deflate;q=0.5, GZIP;q=0.8")).isEqualTo("gzip");
+        assertThat(contentEncoding("*")).isEqualTo("gzip");
+        assertThat(contentEncoding("gzip;q=0")).isNull();
+        assertThat(contentEncoding("gzip;q=0.0, *")).isNull();
+        assertThat(contentEncoding("*;q=0")).isNull();
+        assertThat(contentEncoding("identity")).isNull();
+        assertThat(contentEncoding(null)).isNull();
+    }
+
+    @Test
+    void eachEncodingHasItsOwnEtagAndBothAreRevalidated() throws Exception {
+        String identityEtag = getProducts(null, 200);
+        String gzipEtag = mockMvc.perform(get("/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipEtag).isNotEqualTo(identityEtag);
+
+        mockMvc.perform(get("/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+        // A cache that stored the other encoding keeps it
+        mockMvc.perform(get("/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, identityEtag));
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, identityEtag + ", " + gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, identityEtag));
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, "\"products-other\""))
+                .andExpect(status().isOk());
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        var request = get("/products");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    /**
+     * Poll the product list until the background snapshot rebuild gives it a new entity tag.
+     * Until then the previous snapshot is served and the previous entity tag still matches.
+     */
+    private String awaitNewEtag(String etag) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            var response = mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andReturn().getResponse();
+            if (response.getStatus() == 200) {
+                String newEtag = response.getHeader(HttpHeaders.ETAG);
+                assertThat(newEtag).isNotEqualTo(etag);
+                return newEtag;
+            }
+            assertThat(response.getStatus()).isEqualTo(304);
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The product list kept the entity tag " + etag);
+    }
+
+    /**
+     * Get the product list, optionally conditional, and return the entity tag of the response.
+     */
+    private String getProducts(String ifNoneMatch, int expectedStatus) throws Exception {
+        var request = get("/products");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        String etag = mockMvc.perform(request)
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private Long createProduct(String name, int quantity) {
+        ProductCreateRequestDTO createDTO = new ProductCreateRequestDTO();
+        createDTO.setName(name);
+        createDTO.setCategory("Kitchen");
+        createDTO.setPrice(10.0);
+        createDTO.setQuantity(quantity);
+        createDTO.setInventoryStatus(InventoryStatus.INSTOCK);
+        String code = productService.createProduct(createDTO).getCode();
+        Long productId = productRepository.findAll().stream()
+                .filter(product -> code.equals(product.getCode()))
+                .map(Product::getId)
+                .findFirst()
+                .orElseThrow();
+        productIds.add(productId);
+        return productId;
+    }
+}
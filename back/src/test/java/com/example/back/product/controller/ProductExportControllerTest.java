@@ -0,0 +1,154 @@
+package com.example.back.product.controller;
+
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.model.ProductExportFormat;
+import com.example.back.product.properties.ProductExportProperties;
+import com.example.back.product.repository.ProductRepository;
+import com.example.back.product.service.ProductExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog exports: one JSON document per line, or a CSV header followed by one quoted row per product.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ProductExportControllerTest {
+
+    private static final String CSV_HEADER = "code,name,description,image,category,price,quantity,"
+            + "internal_reference,shell_id,inventory_status,rating,created_at,updated_at";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductExportProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void createProducts() {
+        createProduct("EXPORT-PLAIN", "Plain lamp", "A lamp");
+        createProduct("EXPORT-QUOTED", "Lamp, \"deluxe\"", "Bright\nand warm");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void ndjsonExportHasOneProductPerLine() throws Exception {
+        MvcResult result = export(null, MediaType.APPLICATION_NDJSON_VALUE);
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("\n");
+        List<JsonNode> products = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            products.add(objectMapper.readTree(line));
+        }
+        assertThat(products).hasSize((int) productRepository.count());
+        JsonNode quoted = products.stream()
+                .filter(product -> "EXPORT-QUOTED".equals(product.path("code").asText()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(quoted.path("name").asText()).isEqualTo("Lamp, \"deluxe\"");
+        assertThat(quoted.path("description").asText()).isEqualTo("Bright\nand warm");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("products.ndjson");
+    }
+
+    @Test
+    void csvExportHasAHeaderAndQuotesSpecialCharacters() throws Exception {
+        MvcResult result = export("csv", "text/csv;charset=UTF-8");
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).startsWith(CSV_HEADER + "\n");
+        assertThat(body).contains("\nEXPORT-PLAIN,Plain lamp,A lamp,,Kitchen,10.0,3,,,INSTOCK,,");
+        assertThat(body).contains("\nEXPORT-QUOTED,\"Lamp, \"\"deluxe\"\"\",\"Bright\nand warm\",,Kitchen,10.0,3,,,INSTOCK,,");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("products.csv");
+    }
+
+    @Test
+    void unsupportedFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonExportIsFlushedOncePerClearInterval() throws Exception {
+        FlushCountingOutputStream output = new FlushCountingOutputStream();
+
+        exportService.export(ProductExportFormat.NDJSON, output);
+
+        assertThat(output.flushes).isLessThanOrEqualTo(productRepository.count() / properties.getClearInterval() + 1);
+    }
+
+    private MvcResult export(String format, String contentType) throws Exception {
+        var exportRequest = get("/products/export");
+        if (format != null) {
+            exportRequest.param("format", format);
+        }
+        MvcResult started = mockMvc.perform(exportRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertThat(result.getResponse().getContentType()).isEqualTo(contentType))
+                .andReturn();
+    }
+
+    private void createProduct(String code, String name, String description) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory("Kitchen");
+        product.setPrice(10.0);
+        product.setQuantity(3);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        productIds.add(productRepository.save(product).getId());
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+
+        private long flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
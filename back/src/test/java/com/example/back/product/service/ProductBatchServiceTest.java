@@ -0,0 +1,167 @@
+package com.example.back.product.service;
+
+import com.example.back.auth.model.User;
+import com.example.back.auth.repository.UserRepository;
+import com.example.back.auth.security.CustomUserDetails;
+import com.example.back.cart.dto.request.AddToCartRequestDTO;
+import com.example.back.cart.service.CartService;
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.request.ProductBatchUpdateItemDTO;
+import com.example.back.product.dto.response.ProductBatchItemResultDTO;
+import com.example.back.product.dto.response.ProductBatchResultDTO;
+import com.example.back.product.dto.response.ProductBatchStatus;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batch updates and deletes report every product individually without failing the whole batch,
+ * including a product that cannot be deleted because a cart still references it.
+ */
+@SpringBootTest
+class ProductBatchServiceTest {
+
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAllById(productRepository.findExistingIds(productIds));
+    }
+
+    @Test
+    void updateReportsEachProduct() {
+        Product updated = createProduct("BATCH-UPDATED");
+        Product invalid = createProduct("BATCH-INVALID");
+        Product stale = createProduct("BATCH-STALE");
+
+        ProductBatchResultDTO result = batchService.updateProducts(List.of(
+                update(updated.getId(), updated.getVersion(), 12.5, 7),
+                update(invalid.getId(), null, -1.0, null),
+                update(stale.getId(), stale.getVersion() + 1, 99.0, null),
+                update(MISSING_ID, null, 1.0, null)));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getResults()).extracting(ProductBatchItemResultDTO::getStatus).containsExactly(
+                ProductBatchStatus.UPDATED, ProductBatchStatus.INVALID,
+                ProductBatchStatus.CONFLICT, ProductBatchStatus.NOT_FOUND);
+
+        Product reloaded = productRepository.findById(updated.getId()).orElseThrow();
+        assertThat(reloaded.getPrice()).isEqualTo(12.5);
+        assertThat(reloaded.getQuantity()).isEqualTo(7);
+        assertThat(reloaded.getVersion()).isGreaterThan(updated.getVersion());
+        assertThat(productRepository.findById(invalid.getId()).orElseThrow().getPrice()).isEqualTo(10.0);
+        assertThat(productRepository.findById(stale.getId()).orElseThrow().getPrice()).isEqualTo(10.0);
+    }
+
+    @Test
+    void deleteRemovesExistingProductsAndReportsMissingOnes() {
+        Product first = createProduct("BATCH-DELETE-1");
+        Product second = createProduct("BATCH-DELETE-2");
+
+        ProductBatchResultDTO result = batchService.deleteProducts(
+                List.of(first.getId(), MISSING_ID, second.getId(), first.getId()));
+
+        // Duplicated IDs are reported once
+        assertThat(result.getResults()).extracting(ProductBatchItemResultDTO::getId)
+                .containsExactly(first.getId(), MISSING_ID, second.getId());
+        assertThat(result.getResults()).extracting(ProductBatchItemResultDTO::getStatus).containsExactly(
+                ProductBatchStatus.DELETED, ProductBatchStatus.NOT_FOUND, ProductBatchStatus.DELETED);
+        assertThat(productRepository.findExistingIds(List.of(first.getId(), second.getId()))).isEmpty();
+    }
+
+    @Test
+    void referencedProductIsKeptWithoutFailingTheOthers() {
+        Product first = createProduct("BATCH-FREE-1");
+        Product referenced = createProduct("BATCH-IN-CART");
+        Product second = createProduct("BATCH-FREE-2");
+        User user = new User();
+        user.setUsername("batch-delete");
+        user.setFirstname("Batch");
+        user.setEmail("batch-delete@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        try {
+            cartService.addToCart(new AddToCartRequestDTO(referenced.getId(), 1));
+
+            ProductBatchResultDTO result = batchService.deleteProducts(
+                    List.of(first.getId(), referenced.getId(), second.getId()));
+
+            assertThat(result.getSucceeded()).isEqualTo(2);
+            assertThat(result.getFailed()).isEqualTo(1);
+            assertThat(result.getResults()).extracting(ProductBatchItemResultDTO::getStatus).containsExactly(
+                    ProductBatchStatus.DELETED, ProductBatchStatus.FAILED, ProductBatchStatus.DELETED);
+            assertThat(productRepository.findExistingIds(productIds)).containsExactly(referenced.getId());
+        } finally {
+            SecurityContextHolder.clearContext();
+            jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM shopping_carts WHERE user_id = ?)",
+                    user.getId());
+            jdbcTemplate.update("DELETE FROM shopping_carts WHERE user_id = ?", user.getId());
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void emptyOrOversizedBatchIsRefused() {
+        assertThatThrownBy(() -> batchService.deleteProducts(List.of()))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> batchService.deleteProducts(Collections.nCopies(1_001, MISSING_ID)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName(code);
+        product.setPrice(10.0);
+        product.setQuantity(5);
+        product.setInventoryStatus(InventoryStatus.INSTOCK);
+        Product savedProduct = productRepository.save(product);
+        productIds.add(savedProduct.getId());
+        return savedProduct;
+    }
+
+    private static ProductBatchUpdateItemDTO update(Long id, Long version, Double price, Integer quantity) {
+        ProductBatchUpdateItemDTO update = new ProductBatchUpdateItemDTO();
+        update.setId(id);
+        update.setVersion(version);
+        update.setPrice(price);
+        update.setQuantity(quantity);
+        return update;
+    }
+}
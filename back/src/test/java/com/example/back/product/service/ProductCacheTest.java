@@ -0,0 +1,135 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ResourceNotFoundException;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Per-key load coalescing of the product cache, and evictions racing with loads.
+ */
+class ProductCacheTest {
+
+    private static final int THREADS = 8;
+
+    private ProductCache cache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createCache() {
+        ProductCacheProperties properties = new ProductCacheProperties();
+        properties.setMaximumSize(100);
+        properties.setExpireAfterWrite(Duration.ofMinutes(5));
+        cache = new ProductCache(properties, new SimpleMeterRegistry());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Product>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                await(release);
+                return product(id, "loaded");
+            })));
+        }
+        // Let every thread reach the cache before the single load completes
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Product> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getName()).isEqualTo("loaded");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1L, id -> product(id, "reloaded")).getName()).isEqualTo("loaded");
+    }
+
+    @Test
+    void evictionDropsTheLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Product> staleReader = executor.submit(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return product(id, "before change");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The product changes while the first reader is still loading its previous state
+        cache.evict(1L);
+        assertThat(cache.get(1L, id -> product(id, "after change")).getName()).isEqualTo("after change");
+
+        release.countDown();
+        assertThat(staleReader.get(5, TimeUnit.SECONDS).getName()).isEqualTo("before change");
+        assertThat(cache.get(1L, id -> product(id, "reloaded")).getName()).isEqualTo("after change");
+    }
+
+    @Test
+    void evictingOneProductKeepsTheLoadsOfOthers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Product> reader = executor.submit(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return product(id, "first");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.evict(2L);
+        release.countDown();
+
+        assertThat(reader.get(5, TimeUnit.SECONDS).getName()).isEqualTo("first");
+        assertThat(cache.get(1L, id -> product(id, "reloaded")).getName()).isEqualTo("first");
+    }
+
+    @Test
+    void failedLoadIsRethrownAndRetried() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new ResourceNotFoundException("Product", "id", id);
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(cache.get(1L, id -> product(id, "created")).getName()).isEqualTo("created");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
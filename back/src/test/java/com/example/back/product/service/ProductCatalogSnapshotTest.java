@@ -0,0 +1,100 @@
+package com.example.back.product.service;
+
+import com.example.back.common.dto.ResourceVersion;
+import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.properties.ProductSnapshotProperties;
+import com.example.back.product.service.ProductCatalogSnapshot.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A stale catalog snapshot is served while a single background rebuild replaces it.
+ */
+class ProductCatalogSnapshotTest {
+
+    private final Deque<Runnable> scheduledRebuilds = new ArrayDeque<>();
+    private ProductService productService;
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    @BeforeEach
+    void createSnapshot() {
+        ProductSnapshotProperties properties = new ProductSnapshotProperties();
+        properties.setGzipEnabled(true);
+        properties.setGzipMinSize(0);
+        productService = mock(ProductService.class);
+        catalogSnapshot = new ProductCatalogSnapshot(properties, productService, new ObjectMapper(),
+                scheduledRebuilds::add, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void currentSnapshotIsServedWithoutSerializing() {
+        catalogVersion("products-1", product("PROD-1", 5));
+        catalogSnapshot.initialize();
+
+        Snapshot snapshot = catalogSnapshot.get(new ResourceVersion("products-1", 1));
+
+        assertThat(snapshot.getEtag()).isEqualTo("products-1");
+        assertThat(new String(snapshot.getJson())).contains("PROD-1");
+        assertThat(snapshot.getGzip()).isNotNull();
+        assertThat(scheduledRebuilds).isEmpty();
+        verify(productService, times(1)).getAllProducts();
+    }
+
+    @Test
+    void staleSnapshotIsServedWhileOneRebuildRuns() {
+        catalogVersion("products-1", product("PROD-1", 5));
+        catalogSnapshot.initialize();
+
+        catalogVersion("products-2", product("PROD-1", 4));
+        Snapshot first = catalogSnapshot.get(new ResourceVersion("products-2", 2));
+        Snapshot second = catalogSnapshot.get(new ResourceVersion("products-2", 2));
+
+        // The stale snapshot keeps its own entity tag and nothing was serialized on the calling thread
+        assertThat(first.getEtag()).isEqualTo("products-1");
+        assertThat(second).isSameAs(first);
+        assertThat(scheduledRebuilds).hasSize(1);
+        verify(productService, times(1)).getAllProducts();
+
+        scheduledRebuilds.poll().run();
+
+        Snapshot rebuilt = catalogSnapshot.get(new ResourceVersion("products-2", 2));
+        assertThat(rebuilt.getEtag()).isEqualTo("products-2");
+        assertThat(new String(rebuilt.getJson())).contains("\"quantity\":4");
+        assertThat(scheduledRebuilds).isEmpty();
+    }
+
+    @Test
+    void listIsSerializedOnTheCallingThreadBeforeTheFirstSnapshot() {
+        catalogVersion("products-1", product("PROD-1", 5));
+
+        Snapshot snapshot = catalogSnapshot.get(new ResourceVersion("products-1", 1));
+
+        assertThat(snapshot.getEtag()).isEqualTo("products-1");
+        assertThat(new String(snapshot.getJson())).contains("PROD-1");
+        assertThat(scheduledRebuilds).hasSize(1);
+    }
+
+    private void catalogVersion(String etag, ProductResponseDTO... products) {
+        when(productService.getCatalogVersion()).thenReturn(new ResourceVersion(etag, 1));
+        when(productService.getAllProducts()).thenReturn(List.of(products));
+    }
+
+    private static ProductResponseDTO product(String code, int quantity) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setCode(code);
+        product.setQuantity(quantity);
+        return product;
+    }
+}
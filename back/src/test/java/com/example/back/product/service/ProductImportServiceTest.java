@@ -0,0 +1,90 @@
+package com.example.back.product.service;
+
+import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.dto.response.ProductImportErrorDTO;
+import com.example.back.product.dto.response.ProductImportReportDTO;
+import com.example.back.product.mapper.ProductMapper;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * A batch failing at insert time is replayed row by row, so that only its faulty rows are rejected.
+ */
+@SpringBootTest(properties = "product-import.batch-size=3")
+class ProductImportServiceTest {
+
+    private static final String CATEGORY = "import-test";
+    private static final String BROKEN_NAME = "Broken at insert";
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoSpyBean
+    private ProductMapper productMapper;
+
+    @BeforeEach
+    void breakOneRowAtInsert() {
+        // The mapped entity has no name, so the row passes request validation but fails entity validation
+        doAnswer(invocation -> {
+            Product product = (Product) invocation.callRealMethod();
+            product.setName(null);
+            return product;
+        }).when(productMapper).toEntity(argThat((ProductCreateRequestDTO row) -> row != null
+                && BROKEN_NAME.equals(row.getName())));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll(importedProducts());
+    }
+
+    @Test
+    void failedBatchIsReplayedRowByRow() {
+        String document = String.join("\n",
+                row("Imported one", 10),
+                row(BROKEN_NAME, 10),
+                row("Imported two", 10),
+                row("Negative stock", -1),
+                row("Imported three", 10),
+                row("Imported four", 10),
+                "null");
+
+        ProductImportReportDTO report = importService.importProducts(
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getTotalRows()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(4);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(2L, 4L, 7L);
+        assertThat(importedProducts()).extracting(Product::getName)
+                .containsExactlyInAnyOrder("Imported one", "Imported two", "Imported three", "Imported four");
+    }
+
+    private List<Product> importedProducts() {
+        return productRepository.findAll().stream()
+                .filter(product -> CATEGORY.equals(product.getCategory()))
+                .toList();
+    }
+
+    private static String row(String name, int quantity) {
+        return String.format("{\"name\":\"%s\",\"category\":\"%s\",\"price\":5.0,\"quantity\":%d}",
+                name, CATEGORY, quantity);
+    }
+}
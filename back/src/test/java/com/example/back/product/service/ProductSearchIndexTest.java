@@ -0,0 +1,146 @@
+package com.example.back.product.service;
+
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.event.ProductChangedEvent.ChangeType;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductSearchProperties;
+import com.example.back.product.service.ProductSearchIndex.SearchHits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Matching, ranking and maintenance of the in-memory product search index.
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        ProductSearchProperties properties = new ProductSearchProperties();
+        properties.setNameWeight(3.0f);
+        properties.setCategoryWeight(2.0f);
+        properties.setDescriptionWeight(1.0f);
+        properties.setPrefixBoost(0.8f);
+        properties.setFuzzyBoost(0.5f);
+        properties.setMaxPrefixExpansions(50);
+        index = new ProductSearchIndex(properties, null, null, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void queryIsNormalizedLikeTheIndexedText() {
+        index.index(product(1L, "Café crème", "Drinks", null, InventoryStatus.INSTOCK));
+
+        assertThat(search("CAFE creme").getIds()).containsExactly(1L);
+        assertThat(search("café, crème!").getIds()).containsExactly(1L);
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        index.index(product(1L, "Leather wallet", "Accessories", "Fits a bamboo card", InventoryStatus.INSTOCK));
+        index.index(product(2L, "Bamboo watch", "Accessories", "Wooden strap", InventoryStatus.INSTOCK));
+
+        assertThat(search("bamboo").getIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        index.index(product(1L, "Blue", "Clothing", "Jeans", InventoryStatus.INSTOCK));
+        index.index(product(2L, "Jeans", "Clothing", "Blue", InventoryStatus.INSTOCK));
+        index.index(product(3L, "Blue shirt", "Clothing", null, InventoryStatus.INSTOCK));
+        index.index(product(4L, "Blue scarf", "Clothing", null, InventoryStatus.INSTOCK));
+
+        // Both match in name and description, "jeans" is rarer so the product named after it comes first
+        assertThat(search("blue jeans").getIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shorterFieldsWeighMore() {
+        index.index(product(1L, "Blue cotton shirt", "Clothing", null, InventoryStatus.INSTOCK));
+        index.index(product(2L, "Blue shirt", "Clothing", null, InventoryStatus.INSTOCK));
+
+        assertThat(search("shirt").getIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        index.index(product(1L, "Bamboo watch", "Accessories", null, InventoryStatus.INSTOCK));
+        index.index(product(2L, "Steel watch", "Accessories", null, InventoryStatus.INSTOCK));
+
+        assertThat(search("bamboo watch").getIds()).containsExactly(1L);
+        assertThat(search("bamboo bracelet").getIds()).isEmpty();
+    }
+
+    @Test
+    void prefixesAndTyposMatchWithLowerScore() {
+        index.index(product(1L, "Bamboo watch", "Accessories", null, InventoryStatus.INSTOCK));
+        index.index(product(2L, "Bamb", "Accessories", null, InventoryStatus.INSTOCK));
+
+        assertThat(search("bamb").getIds()).containsExactly(2L, 1L);
+        assertThat(search("wetch").getIds()).containsExactly(1L);
+        // Short terms are not matched with typos
+        assertThat(search("bax").getIds()).isEmpty();
+    }
+
+    @Test
+    void filtersKeepFacetsOfEveryMatch() {
+        index.index(product(1L, "Bamboo watch", "Accessories", null, InventoryStatus.INSTOCK));
+        index.index(product(2L, "Bamboo plate", "Kitchen", null, InventoryStatus.LOWSTOCK));
+        index.index(product(3L, "Bamboo bowl", "Kitchen", null, InventoryStatus.INSTOCK));
+
+        SearchHits hits = index.search("bamboo", "Kitchen", InventoryStatus.INSTOCK, 0, 10);
+
+        assertThat(hits.getIds()).containsExactly(3L);
+        assertThat(hits.getTotal()).isEqualTo(1);
+        assertThat(hits.getCategoryFacets()).isEqualTo(Map.of("Accessories", 1L, "Kitchen", 2L));
+        assertThat(hits.getInventoryStatusFacets()).isEqualTo(Map.of("INSTOCK", 2L, "LOWSTOCK", 1L));
+    }
+
+    @Test
+    void pagesFollowTheRanking() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Bamboo item " + id, "Kitchen", null, InventoryStatus.INSTOCK));
+        }
+
+        assertThat(index.search("bamboo", null, null, 0, 2).getIds()).containsExactly(1L, 2L);
+        assertThat(index.search("bamboo", null, null, 2, 2).getIds()).containsExactly(5L);
+        assertThat(index.search("bamboo", null, null, 2, 2).getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void productChangesUpdateTheIndex() {
+        Product product = product(1L, "Bamboo watch", "Accessories", null, InventoryStatus.INSTOCK);
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.CREATED, product, null));
+        assertThat(search("bamboo").getIds()).containsExactly(1L);
+
+        product.setName("Steel watch");
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.UPDATED, product, null));
+        assertThat(search("bamboo").getIds()).isEmpty();
+        assertThat(search("steel").getIds()).containsExactly(1L);
+
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.DELETED, null, null));
+        assertThat(search("steel").getIds()).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private SearchHits search(String query) {
+        return index.search(query, null, null, 0, 10);
+    }
+
+    private static Product product(Long id, String name, String category, String description, InventoryStatus status) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setDescription(description);
+        product.setInventoryStatus(status);
+        return product;
+    }
+}
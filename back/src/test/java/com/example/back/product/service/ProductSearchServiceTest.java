@@ -0,0 +1,76 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.dto.response.ProductSearchResponseDTO;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The search index follows products created, updated and deleted through the product service.
+ */
+@SpringBootTest
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductSearchService searchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void committedProductChangesAreSearchable() {
+        ProductCreateRequestDTO createDTO = new ProductCreateRequestDTO();
+        createDTO.setName("Zanzibar spice box");
+        createDTO.setCategory("Kitchen");
+        createDTO.setPrice(12.0);
+        createDTO.setQuantity(3);
+        createDTO.setInventoryStatus(InventoryStatus.INSTOCK);
+        String code = productService.createProduct(createDTO).getCode();
+        Long productId = productRepository.findAll().stream()
+                .filter(product -> code.equals(product.getCode()))
+                .map(Product::getId)
+                .findFirst()
+                .orElseThrow();
+
+        try {
+            ProductSearchResponseDTO response = searchService.searchProducts("zanzibar", null, null, null, null);
+            assertThat(response.getItems()).extracting(ProductResponseDTO::getCode).containsExactly(code);
+            assertThat(response.getFacets().getCategory()).containsEntry("Kitchen", 1L);
+
+            ProductUpdateRequestDTO updateDTO = new ProductUpdateRequestDTO();
+            updateDTO.setName("Madagascar spice box");
+            productService.updateProduct(productId, updateDTO);
+
+            assertThat(searchService.searchProducts("zanzibar", null, null, null, null).getTotal()).isZero();
+            assertThat(searchService.searchProducts("madagascar spice", null, null, null, null).getItems())
+                    .extracting(ProductResponseDTO::getCode).containsExactly(code);
+        } finally {
+            productService.deleteProduct(productId);
+        }
+
+        assertThat(searchService.searchProducts("madagascar", null, null, null, null).getTotal()).isZero();
+    }
+
+    @Test
+    void blankQueryAndInvalidPageAreRefused() {
+        assertThatThrownBy(() -> searchService.searchProducts(" ", null, null, null, null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.searchProducts("spice", null, null, -1, null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.searchProducts("spice", null, null, 0, 1_000))
+                .isInstanceOf(ValidationException.class);
+    }
+}
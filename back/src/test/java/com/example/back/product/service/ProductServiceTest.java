@@ -0,0 +1,101 @@
+package com.example.back.product.service;
+
+import com.example.back.inventory.repository.StockReservationRepository;
+import com.example.back.inventory.service.StockReservationService;
+import com.example.back.product.dto.request.ProductCreateRequestDTO;
+import com.example.back.product.dto.request.ProductPageRequestDTO;
+import com.example.back.product.dto.request.ProductUpdateRequestDTO;
+import com.example.back.product.dto.response.ProductPageResponseDTO;
+import com.example.back.product.dto.response.ProductResponseDTO;
+import com.example.back.product.model.InventoryStatus;
+import com.example.back.product.model.Product;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of products: stock moves and edits made while paging neither skip nor repeat a product.
+ */
+@SpringBootTest
+class ProductServiceTest {
+
+    private static final String CATEGORY = "Paging";
+    private static final int PRODUCTS = 7;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private final List<String> codes = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll(reservationRepository.findByReference("paging"));
+        productRepository.findAll().stream()
+                .filter(product -> codes.contains(product.getCode()))
+                .map(Product::getId)
+                .forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void productsChangedWhilePagingAreListedOnce() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            codes.add(createProduct("Paging product " + i));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageResponseDTO page = productService.getProductPage(
+                    new ProductPageRequestDTO(CATEGORY, null, null, null, null, cursor, 3));
+            page.getItems().stream().map(ProductResponseDTO::getCode).forEach(seen::add);
+            cursor = page.getNextCursor();
+
+            if (seen.size() == 3) {
+                // The oldest product, not listed yet, has its stock moved and the newest one is edited
+                reservationService.reserve(id(codes.get(0)), 1, "paging");
+                ProductUpdateRequestDTO rename = new ProductUpdateRequestDTO();
+                rename.setName("Paging product renamed");
+                productService.updateProduct(id(codes.get(PRODUCTS - 1)), rename);
+            }
+        } while (cursor != null);
+
+        List<String> expected = new ArrayList<>(codes);
+        Collections.reverse(expected);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    private String createProduct(String name) {
+        ProductCreateRequestDTO createDTO = new ProductCreateRequestDTO();
+        createDTO.setName(name);
+        createDTO.setCategory(CATEGORY);
+        createDTO.setPrice(10.0);
+        createDTO.setQuantity(5);
+        createDTO.setInventoryStatus(InventoryStatus.INSTOCK);
+        return productService.createProduct(createDTO).getCode();
+    }
+
+    private Long id(String code) {
+        return productRepository.findAll().stream()
+                .filter(product -> code.equals(product.getCode()))
+                .map(Product::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+}
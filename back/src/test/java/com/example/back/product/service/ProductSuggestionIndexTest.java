@@ -0,0 +1,169 @@
+package com.example.back.product.service;
+
+import com.example.back.common.exception.ValidationException;
+import com.example.back.product.dto.response.ProductSuggestionDTO;
+import com.example.back.product.event.ProductChangedEvent;
+import com.example.back.product.event.ProductChangedEvent.ChangeType;
+import com.example.back.product.model.Product;
+import com.example.back.product.properties.ProductSuggestProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Insertion, edge splitting, removal, prefix lookup and limits of the product suggestion radix trie.
+ */
+class ProductSuggestionIndexTest {
+
+    private ProductSuggestionIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        ProductSuggestProperties properties = new ProductSuggestProperties();
+        properties.setDefaultLimit(8);
+        properties.setMaxLimit(20);
+        properties.setQueryRequiredError("Suggestion query is required");
+        properties.setLimitError("Limit must be between 1 and %d");
+        index = new ProductSuggestionIndex(properties, null, null, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void insertedProductIsFoundByEveryPrefixOfItsName() {
+        index.index(product(1L, "PROD-1", "Bamboo watch", 4, 10));
+
+        assertThat(codes("b")).containsExactly("PROD-1");
+        assertThat(codes("bamb")).containsExactly("PROD-1");
+        assertThat(codes("bamboo watch")).containsExactly("PROD-1");
+        assertThat(codes("bamboo watches")).isEmpty();
+        assertThat(codes("x")).isEmpty();
+    }
+
+    @Test
+    void sharedPrefixSplitsTheEdgeAndKeepsBothKeys() {
+        index.index(product(1L, "PROD-1", "Bamboo watch", 4, 10));
+        index.index(product(2L, "PROD-2", "Bamboo bowl", 3, 10));
+        index.index(product(3L, "PROD-3", "Bam", 2, 10));
+
+        assertThat(codes("bam")).containsExactly("PROD-1", "PROD-2", "PROD-3");
+        assertThat(codes("bamboo")).containsExactly("PROD-1", "PROD-2");
+        // The prefix ends in the middle of the edge left after the split
+        assertThat(codes("bamboo w")).containsExactly("PROD-1");
+        assertThat(codes("bamboo bo")).containsExactly("PROD-2");
+    }
+
+    @Test
+    void removalPrunesAndMergesNodesWithoutLosingOtherKeys() {
+        index.index(product(1L, "PROD-1", "Bamboo watch", 4, 10));
+        index.index(product(2L, "PROD-2", "Bamboo bowl", 3, 10));
+        index.index(product(3L, "PROD-3", "Bam", 2, 10));
+
+        index.remove(2L);
+        assertThat(codes("bamboo")).containsExactly("PROD-1");
+        assertThat(codes("bamboo b")).isEmpty();
+        assertThat(codes("bowl")).isEmpty();
+
+        index.remove(3L);
+        assertThat(codes("bam")).containsExactly("PROD-1");
+        assertThat(codes("bamboo wa")).containsExactly("PROD-1");
+
+        index.remove(1L);
+        assertThat(codes("b")).isEmpty();
+
+        // A removed path can be inserted again
+        index.index(product(4L, "PROD-4", "Bamboo watch", 1, 1));
+        assertThat(codes("bamboo w")).containsExactly("PROD-4");
+    }
+
+    @Test
+    void everyWordOfTheNameAndTheCodeAreKeys() {
+        index.index(product(1L, "PROD-1A", "Bamboo watch strap", 4, 10));
+
+        assertThat(codes("watch")).containsExactly("PROD-1A");
+        assertThat(codes("strap")).containsExactly("PROD-1A");
+        assertThat(codes("prod")).containsExactly("PROD-1A");
+        assertThat(codes("PROD-1")).containsExactly("PROD-1A");
+        assertThat(codes("prod 1a")).containsExactly("PROD-1A");
+    }
+
+    @Test
+    void queryIsTokenizedLikeTheKeys() {
+        index.index(product(1L, "PROD-1", "Bamboo watch", 4, 10));
+
+        assertThat(codes("bamboo-w")).containsExactly("PROD-1");
+        assertThat(codes("bamboo  w")).containsExactly("PROD-1");
+        assertThat(codes("  BAMBOO, Watch")).containsExactly("PROD-1");
+        assertThat(codes("bambóo")).containsExactly("PROD-1");
+    }
+
+    @Test
+    void suggestionsAreRankedByRatingThenStock() {
+        index.index(product(1L, "PROD-1", "Bamboo watch", 3, 50));
+        index.index(product(2L, "PROD-2", "Bamboo bowl", 5, 1));
+        index.index(product(3L, "PROD-3", "Bamboo box", 3, 80));
+
+        assertThat(codes("bamboo")).containsExactly("PROD-2", "PROD-3", "PROD-1");
+    }
+
+    @Test
+    void limitCapsTheSuggestionsAndIsValidated() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(product(id, "PROD-" + id, "Bamboo item " + id, (int) (id % 5), (int) id));
+        }
+
+        assertThat(index.suggest("bamboo", null)).hasSize(8);
+        assertThat(index.suggest("bamboo", 3)).hasSize(3);
+        assertThat(index.suggest("bamboo", 20)).hasSize(20);
+        assertThatThrownBy(() -> index.suggest("bamboo", 0)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> index.suggest("bamboo", 21))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Limit must be between 1 and 20");
+    }
+
+    @Test
+    void blankOrPunctuationOnlyQueryIsRejected() {
+        assertThatThrownBy(() -> index.suggest("  ", null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Suggestion query is required");
+        assertThatThrownBy(() -> index.suggest("-- !", null)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> index.suggest(null, null)).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void productChangesReplaceTheOldKeys() {
+        Product product = product(1L, "PROD-1", "Bamboo watch", 4, 10);
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.CREATED, product, null));
+        assertThat(codes("bamboo")).containsExactly("PROD-1");
+
+        product.setName("Steel watch");
+        product.setRating(2);
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.UPDATED, product, null));
+        assertThat(codes("bamboo")).isEmpty();
+        assertThat(index.suggest("steel", null))
+                .extracting(ProductSuggestionDTO::getRating)
+                .containsExactly(2);
+
+        index.onProductChanged(new ProductChangedEvent(1L, ChangeType.DELETED, null, null));
+        assertThat(codes("steel")).isEmpty();
+        assertThat(codes("watch")).isEmpty();
+    }
+
+    private List<String> codes(String query) {
+        return index.suggest(query, null).stream().map(ProductSuggestionDTO::getCode).toList();
+    }
+
+    private static Product product(Long id, String code, String name, int rating, int quantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(code);
+        product.setName(name);
+        product.setRating(rating);
+        product.setQuantity(quantity);
+        return product;
+    }
+}
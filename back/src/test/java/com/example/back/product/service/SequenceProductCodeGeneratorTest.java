@@ -0,0 +1,137 @@
+package com.example.back.product.service;
+
+import com.example.back.product.properties.ProductCodeProperties;
+import com.example.back.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Product codes must be unique and increasing, including on sequence overflow, clock steps back and restarts.
+ */
+class SequenceProductCodeGeneratorTest {
+
+    private static final String PREFIX = "PROD-";
+    private static final long NOW = 1_760_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void codesIncreaseWithinOneMillisecondBeyondSequenceCapacity() {
+        SequenceProductCodeGenerator generator = generator(0, List.of());
+
+        // 4096 codes fit in one millisecond, the rest carry over into the next ones
+        assertIncreasing(generate(generator, 10_000));
+    }
+
+    @Test
+    void codesKeepIncreasingWhenClockStepsBack() {
+        SequenceProductCodeGenerator generator = generator(0, List.of());
+        List<String> codes = generate(generator, 100);
+
+        clock.addAndGet(-60_000);
+        codes.addAll(generate(generator, 100));
+
+        assertIncreasing(codes);
+    }
+
+    @Test
+    void restartResumesAfterHighestStoredCode() {
+        SequenceProductCodeGenerator first = generator(0, List.of());
+        List<String> codes = generate(first, 10_000);
+
+        // Restart with the clock behind the last issued code
+        clock.addAndGet(-60_000);
+        SequenceProductCodeGenerator restarted = generator(0, List.of("PROD-LIMITED-EDITION-2025", codes.get(codes.size() - 1)));
+        codes.addAll(generate(restarted, 100));
+
+        assertIncreasing(codes);
+    }
+
+    @Test
+    void nodesNeverIssueTheSameCode() {
+        Set<String> codes = new HashSet<>(generate(generator(1, List.of()), 5_000));
+        codes.addAll(generate(generator(2, List.of()), 5_000));
+
+        assertThat(codes).hasSize(10_000);
+    }
+
+    @Test
+    void concurrentCallersGetUniqueCodes() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        SequenceProductCodeGenerator generator = generator(0, List.of());
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        codes.add(generator.nextCode());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(codes).hasSize(threads * perThread);
+    }
+
+    private SequenceProductCodeGenerator generator(int nodeId, List<String> storedCodes) {
+        ProductCodeProperties properties = new ProductCodeProperties();
+        properties.setPrefix(PREFIX);
+        properties.setNodeId(nodeId);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findHighestCodes(anyString(), any(Pageable.class))).thenReturn(storedCodes);
+
+        return new SequenceProductCodeGenerator(properties, productRepository) {
+            @Override
+            protected long currentTimeMillis() {
+                return clock.get();
+            }
+        };
+    }
+
+    private static List<String> generate(SequenceProductCodeGenerator generator, int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(generator.nextCode());
+        }
+        return codes;
+    }
+
+    private static void assertIncreasing(List<String> codes) {
+        for (int i = 1; i < codes.size(); i++) {
+            assertThat(value(codes.get(i))).as("code %d", i).isGreaterThan(value(codes.get(i - 1)));
+        }
+    }
+
+    private static long value(String code) {
+        return Long.parseLong(code.substring(PREFIX.length()), Character.MAX_RADIX);
+    }
+}